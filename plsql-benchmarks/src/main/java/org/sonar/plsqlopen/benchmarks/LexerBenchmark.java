@@ -0,0 +1,130 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.plsqlopen.lexer.PlSqlLexer;
+import org.sonar.plsqlopen.lexer.RegexpPlSqlLexer;
+import org.sonar.plsqlopen.squid.PlSqlConfiguration;
+
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.impl.Lexer;
+
+/**
+ * Compares the PL/SQL lexer with the {@link RegexpPlSqlLexer} made of regular expression channels
+ * and the IdentifierAndKeywordChannel. The sources are read from the directory given by the
+ * "sources" parameter, which defaults to the projects used by the ruling tests:
+ * <pre>
+ * mvn package -Pbenchmarks
+ * java -jar plsql-benchmarks/target/benchmarks.jar -p sources=/path/to/package/bodies
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class LexerBenchmark {
+
+    private static final String[] EXTENSIONS = { ".sql", ".pkb", ".pks", ".pck", ".prc", ".fnc", ".trg", ".typ", ".tpb", ".tps" };
+    
+    @Param("../its/sources")
+    public String sources;
+    
+    private List<String> files;
+    private Lexer lexer;
+    private Lexer regexpLexer;
+    
+    @Setup
+    public void setUp() throws IOException {
+        try (Stream<Path> paths = Files.walk(Paths.get(sources))) {
+            files = paths
+                .filter(LexerBenchmark::isPlSqlFile)
+                .map(LexerBenchmark::read)
+                .collect(Collectors.toList());
+        }
+        if (files.isEmpty()) {
+            throw new IllegalStateException("No PL/SQL file found in " + sources);
+        }
+        
+        PlSqlConfiguration configuration = new PlSqlConfiguration(StandardCharsets.UTF_8);
+        lexer = PlSqlLexer.create(configuration);
+        regexpLexer = RegexpPlSqlLexer.create(configuration);
+    }
+    
+    @Benchmark
+    public int plSqlLexer() {
+        return lex(lexer);
+    }
+    
+    @Benchmark
+    public int regexpLexer() {
+        return lex(regexpLexer);
+    }
+    
+    private int lex(Lexer lexerToUse) {
+        int tokens = 0;
+        for (String file : files) {
+            List<Token> result = lexerToUse.lex(file);
+            tokens += result.size();
+        }
+        return tokens;
+    }
+    
+    private static boolean isPlSqlFile(Path path) {
+        String name = path.getFileName().toString().toLowerCase();
+        for (String extension : EXTENSIONS) {
+            if (name.endsWith(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String read(Path path) {
+        try {
+            return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't read " + path, e);
+        }
+    }
+    
+}
@@ -0,0 +1,124 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.benchmarks;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.plugins.plsqlopen.api.symbols.Scope;
+import org.sonar.plugins.plsqlopen.api.symbols.Symbol;
+
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.GenericTokenType;
+import com.sonar.sslr.api.Token;
+
+/**
+ * Resolves every variable of a generated package body from a procedure nested in it, the way
+ * SymbolVisitor resolves each variable name it finds. The "linearScan" benchmark is the lookup
+ * made by comparing the name of each symbol of each enclosing scope.
+ * <pre>
+ * mvn package -Pbenchmarks
+ * java -jar plsql-benchmarks/target/benchmarks.jar ScopeBenchmark -p variables=5000
+ * </pre>
+ */
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ScopeBenchmark {
+
+    @Param("5000")
+    public int variables;
+    
+    private Scope innermostScope;
+    private List<String> usages;
+    
+    @Setup
+    public void setUp() throws Exception {
+        URI uri = new URI("tests://benchmark");
+        Scope packageScope = new Scope(null, null, false, false);
+        usages = new ArrayList<>();
+        for (int i = 0; i < variables; i++) {
+            String name = "v_variable_" + i;
+            Token token = Token.builder()
+                    .setType(GenericTokenType.IDENTIFIER)
+                    .setValueAndOriginalValue(name.toUpperCase(Locale.ENGLISH), name)
+                    .setURI(uri)
+                    .setLine(i + 2)
+                    .setColumn(2)
+                    .build();
+            packageScope.addSymbol(new Symbol(new AstNode(token), Symbol.Kind.VARIABLE, packageScope));
+            usages.add(name.toUpperCase(Locale.ENGLISH));
+        }
+        Scope procedureScope = new Scope(packageScope, null, false, false);
+        innermostScope = new Scope(procedureScope, null, false, false);
+    }
+    
+    @Benchmark
+    public int getSymbol() {
+        int found = 0;
+        for (String usage : usages) {
+            if (innermostScope.getSymbol(usage) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+    
+    @Benchmark
+    public int linearScan() {
+        int found = 0;
+        for (String usage : usages) {
+            if (scan(innermostScope, usage) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+    
+    private static Symbol scan(Scope scope, String name) {
+        Scope current = scope;
+        while (current != null) {
+            for (Symbol symbol : current.getSymbols()) {
+                if (symbol.called(name)) {
+                    return symbol;
+                }
+            }
+            current = current.outer();
+        }
+        return null;
+    }
+    
+}
@@ -21,16 +21,18 @@ package org.sonar.plsqlopen.checks;
 
 import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public abstract class AbstractBaseCheck extends PlSqlCheck {
     
-    private ResourceBundle bundle;
+    private static final String BUNDLE_NAME = "org.sonar.l10n.plsqlopen";
+    private static final ConcurrentMap<Locale, ConcurrentMap<String, String>> MESSAGES = new ConcurrentHashMap<>();
     
     protected String getLocalizedMessage(String checkKey) {
-        if (bundle == null) {
-            bundle = ResourceBundle.getBundle("org.sonar.l10n.plsqlopen", Locale.getDefault());
-        }
-        return bundle.getString("rule.plsql." + checkKey + ".message"); 
+        Locale locale = Locale.getDefault();
+        return MESSAGES.computeIfAbsent(locale, l -> new ConcurrentHashMap<>())
+            .computeIfAbsent(checkKey, key -> ResourceBundle.getBundle(BUNDLE_NAME, locale).getString("rule.plsql." + key + ".message"));
     }
     
 }
@@ -23,6 +23,7 @@ import java.util.List;
 
 import javax.annotation.Nullable;
 
+import org.sonar.plsqlopen.matchers.MethodMatch;
 import org.sonar.plsqlopen.matchers.MethodMatcher;
 import org.sonar.plugins.plsqlopen.api.PlSqlGrammar;
 import org.sonar.plugins.plsqlopen.api.PlSqlKeyword;
@@ -114,8 +115,9 @@ public class CheckUtils {
     }
     
     public static AstNode skipNvlWithNull(AstNode node) {
-        if (NVL_MATCHER.matches(node)) {
-            List<AstNode> arguments = NVL_MATCHER.getArguments(node);
+        MethodMatch nvl = NVL_MATCHER.match(node);
+        if (nvl != null) {
+            List<AstNode> arguments = nvl.getArguments();
             if (isNullLiteralOrEmptyString(arguments.get(1).getFirstChild())) {
                 return arguments.get(0).getFirstChild();
             }
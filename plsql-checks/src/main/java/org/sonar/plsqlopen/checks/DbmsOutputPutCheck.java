@@ -22,6 +22,7 @@ package org.sonar.plsqlopen.checks;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.plsqlopen.matchers.MethodMatcher;
+import org.sonar.plsqlopen.matchers.MethodMatcherSet;
 import org.sonar.plugins.plsqlopen.api.PlSqlGrammar;
 import org.sonar.squidbridge.annotations.ActivatedByDefault;
 import org.sonar.squidbridge.annotations.SqaleConstantRemediation;
@@ -36,6 +37,18 @@ import com.sonar.sslr.api.AstNode;
 public class DbmsOutputPutCheck extends AbstractBaseCheck {
     public static final String CHECK_KEY = "DbmsOutputPut";
     
+    private final MethodMatcherSet matchers = MethodMatcherSet.of(
+            MethodMatcher.create()
+                .schema("sys").schemaIsOptional()
+                .packageName("dbms_output")
+                .name("put")
+                .addParameter(),
+            MethodMatcher.create()
+                .schema("sys").schemaIsOptional()
+                .packageName("dbms_output")
+                .name("put_line")
+                .addParameter());
+    
     @Override
     public void init() {
         subscribeTo(PlSqlGrammar.METHOD_CALL);
@@ -43,19 +56,7 @@ public class DbmsOutputPutCheck extends AbstractBaseCheck {
     
     @Override
     public void visitNode(AstNode node) {
-        MethodMatcher put = MethodMatcher.create()
-                .schema("sys").schemaIsOptional()
-                .packageName("dbms_output")
-                .name("put")
-                .addParameter();
-        
-        MethodMatcher putLine = MethodMatcher.create()
-                .schema("sys").schemaIsOptional()
-                .packageName("dbms_output")
-                .name("put_line")
-                .addParameter();
-        
-        if (!put.matches(node) && !putLine.matches(node)) {
+        if (!matchers.matches(node)) {
             return;
         }
         
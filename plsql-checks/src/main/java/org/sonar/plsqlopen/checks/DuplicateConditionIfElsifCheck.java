@@ -39,6 +39,8 @@ import com.sonar.sslr.api.AstNode;
 @ActivatedByDefault
 public class DuplicateConditionIfElsifCheck extends AbstractBaseCheck {
     public static final String CHECK_KEY = "DuplicateConditionIfElsif";
+    
+    private final StructuralHash structuralHash = new StructuralHash();
 
     @Override
     public void init() {
@@ -67,24 +69,17 @@ public class DuplicateConditionIfElsifCheck extends AbstractBaseCheck {
         return node.getChildren().get(1);
     }
     
-    private void findSameConditions(List<AstNode> branches) {
-        for (int i = 1; i < branches.size(); i++) {
-            checkCondition(branches, i);
-        }
+    private void findSameConditions(List<AstNode> conditions) {
+        structuralHash.forEachDuplicate(conditions, (condition, otherCondition) -> 
+            getPlSqlContext().createViolation(this, getLocalizedMessage(CHECK_KEY), 
+                    condition,
+                    ImmutableList.of(newLocation("Original", otherCondition)),
+                    otherCondition.getToken().getLine()));
     }
-    
-    private void checkCondition(List<AstNode> conditions, int index) {
-        AstNode condition = conditions.get(index);
-        for (int j = 0; j < index; j++) {
-            AstNode otherCondition = conditions.get(j);
-            if (CheckUtils.equalNodes(otherCondition, condition)) {
-                getPlSqlContext().createViolation(this, getLocalizedMessage(CHECK_KEY), 
-                        condition,
-                        ImmutableList.of(newLocation("Original", otherCondition)),
-                        otherCondition.getToken().getLine());
-                return;
-            }
-        }
+
+    @Override
+    public void leaveFile(AstNode astNode) {
+        structuralHash.clear();
     }
 
 }
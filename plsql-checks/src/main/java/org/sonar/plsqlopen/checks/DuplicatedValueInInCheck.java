@@ -40,6 +40,8 @@ import com.sonar.sslr.api.AstNode;
 @ActivatedByDefault
 public class DuplicatedValueInInCheck extends AbstractBaseCheck {
     public static final String CHECK_KEY = "DuplicatedValueInIn";
+    
+    private final StructuralHash structuralHash = new StructuralHash();
 
     @Override
     public void init() {
@@ -68,25 +70,16 @@ public class DuplicatedValueInInCheck extends AbstractBaseCheck {
     }
     
     private void findSameValues(List<AstNode> values) {
-        for (int i = 1; i < values.size(); i++) {
-            checkValue(values, i);
-        }
+        structuralHash.forEachDuplicate(values, (current, other) -> 
+            getPlSqlContext().createViolation(this, getLocalizedMessage(CHECK_KEY), 
+                    current,
+                    ImmutableList.of(newLocation("Original", other)),
+                    current.getTokenOriginalValue()));
     }
 
-    private void checkValue(List<AstNode> values, int index) {
-        AstNode current  = values.get(index);
-        
-        for (int j = 0; j < index; j++) {
-            AstNode other = values.get(j);
-            
-            if (CheckUtils.equalNodes(current, other)) {
-                getPlSqlContext().createViolation(this, getLocalizedMessage(CHECK_KEY), 
-                        current,
-                        ImmutableList.of(newLocation("Original", other)),
-                        current.getTokenOriginalValue());
-                return;
-            }
-        }
+    @Override
+    public void leaveFile(AstNode astNode) {
+        structuralHash.clear();
     }
 
 }
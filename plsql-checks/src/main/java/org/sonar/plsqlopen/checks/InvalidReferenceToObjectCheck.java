@@ -19,14 +19,17 @@
  */
 package org.sonar.plsqlopen.checks;
 
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.Map;
 
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.plsqlopen.FormsMetadataAwareCheck;
+import org.sonar.plsqlopen.matchers.MethodMatch;
 import org.sonar.plsqlopen.matchers.MethodMatcher;
-import org.sonar.plsqlopen.metadata.Block;
+import org.sonar.plsqlopen.matchers.MethodMatcherSet;
+import org.sonar.plsqlopen.metadata.FormsMetadata;
 import org.sonar.plugins.plsqlopen.api.PlSqlGrammar;
 import org.sonar.squidbridge.annotations.ActivatedByDefault;
 import org.sonar.squidbridge.annotations.SqaleConstantRemediation;
@@ -86,6 +89,16 @@ public class InvalidReferenceToObjectCheck extends AbstractBaseCheck implements
             new Verifier(MethodMatcher.create().name("write_image_file").addParameters(5), 3, ObjectType.ITEM),
             new Verifier(MethodMatcher.create().name("write_sound_file").addParameters(5), 3, ObjectType.ITEM)
         );
+    
+    private final Map<MethodMatcher, Verifier> verifiersByMatcher = new LinkedHashMap<>();
+    private final MethodMatcherSet matchers;
+    
+    public InvalidReferenceToObjectCheck() {
+        for (Verifier verifier : verifiers) {
+            verifiersByMatcher.put(verifier.matcher, verifier);
+        }
+        matchers = MethodMatcherSet.of(verifiersByMatcher.keySet());
+    }
 
     @Override
     public void init() {
@@ -94,10 +107,12 @@ public class InvalidReferenceToObjectCheck extends AbstractBaseCheck implements
 
     @Override
     public void visitNode(AstNode node) {
-        Verifier verifier = verifiers.stream().filter(v -> v.matcher.matches(node)).findFirst().orElse(null);
+        MethodMatch match = matchers.match(node);
         
-        if (verifier != null) {
-            AstNode argument = verifier.matcher.getArguments(node).get(verifier.argumentToCheck);
+        FormsMetadata metadata = getPlSqlContext().getFormsMetadata();
+        if (match != null && metadata != null) {
+            Verifier verifier = verifiersByMatcher.get(match.getMatcher());
+            AstNode argument = match.getArguments().get(verifier.argumentToCheck);
             if (!isVarcharLiteral(argument)) {
                 return;
             }
@@ -106,45 +121,36 @@ public class InvalidReferenceToObjectCheck extends AbstractBaseCheck implements
             
             boolean reportIssue = false;
             if (verifier.type == ObjectType.ALERT) {
-                reportIssue = validateAlert(value);
+                reportIssue = validateAlert(metadata, value);
             } else if (verifier.type == ObjectType.BLOCK) {
-                reportIssue = validateBlock(value);
+                reportIssue = validateBlock(metadata, value);
             } else if (verifier.type == ObjectType.ITEM) {
-                reportIssue = validateItem(value);
+                reportIssue = validateItem(metadata, value);
             } else if (verifier.type == ObjectType.LOV) {
-                reportIssue = validateLov(value);
+                reportIssue = validateLov(metadata, value);
             }
             
             if (reportIssue) {
-                getPlSqlContext().createViolation(this, getLocalizedMessage(CHECK_KEY), argument, value, verifier.matcher.getMethodName().toUpperCase());
+                getPlSqlContext().createViolation(this, getLocalizedMessage(CHECK_KEY), argument, value, match.getMethodName().toUpperCase());
             }
             
         }
     }
 
-    private boolean validateAlert(String value) {
-        return !Stream.of(getPlSqlContext().getFormsMetadata().getAlerts()).anyMatch(alert -> alert.equalsIgnoreCase(value));
+    private static boolean validateAlert(FormsMetadata metadata, String value) {
+        return !metadata.hasAlert(value);
     }
     
-    private boolean validateBlock(String value) {
-        return !Stream.of(getPlSqlContext().getFormsMetadata().getBlocks()).anyMatch(block -> block.getName().equalsIgnoreCase(value));
+    private static boolean validateBlock(FormsMetadata metadata, String value) {
+        return !metadata.hasBlock(value);
     }
     
-    private boolean validateItem(String value) {
-        boolean reportIssue = true;
-        for (Block block : getPlSqlContext().getFormsMetadata().getBlocks()) {
-            if (Stream.of(block.getItems()).anyMatch(item -> {
-                    String fullName = block.getName() + "." + item;
-                    return fullName.equalsIgnoreCase(value);
-                })) {
-                reportIssue = false;
-            }
-        }
-        return reportIssue;
+    private static boolean validateItem(FormsMetadata metadata, String value) {
+        return !metadata.hasItem(value);
     }
     
-    private boolean validateLov(String value) {
-        return !Stream.of(getPlSqlContext().getFormsMetadata().getLovs()).anyMatch(lov -> lov.equalsIgnoreCase(value));
+    private static boolean validateLov(FormsMetadata metadata, String value) {
+        return !metadata.hasLov(value);
     }
     
     private static boolean isVarcharLiteral(AstNode argument) {
@@ -21,6 +21,7 @@ package org.sonar.plsqlopen.checks;
 
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
+import org.sonar.plsqlopen.matchers.MethodMatch;
 import org.sonar.plsqlopen.matchers.MethodMatcher;
 import org.sonar.plugins.plsqlopen.api.PlSqlGrammar;
 import org.sonar.squidbridge.annotations.ActivatedByDefault;
@@ -37,6 +38,8 @@ import com.sonar.sslr.api.AstNode;
 public class NvlWithNullParameterCheck extends AbstractBaseCheck {
     public static final String CHECK_KEY = "NvlWithNullParameter";
 
+    private static final MethodMatcher NVL_MATCHER = MethodMatcher.create().name("nvl").addParameters(2);
+    
     @Override
     public void init() {
         subscribeTo(PlSqlGrammar.METHOD_CALL);
@@ -44,13 +47,13 @@ public class NvlWithNullParameterCheck extends AbstractBaseCheck {
     
     @Override
     public void visitNode(AstNode node) {
-        MethodMatcher nvl = MethodMatcher.create().name("nvl").addParameters(2);
+        MethodMatch nvl = NVL_MATCHER.match(node);
         
-        if (!nvl.matches(node)) {
+        if (nvl == null) {
             return;
         }
         
-        for (AstNode argument : nvl.getArguments(node)) {
+        for (AstNode argument : nvl.getArguments()) {
             AstNode argumentValue = argument.getLastChild();
             if (CheckUtils.isNullLiteralOrEmptyString(argumentValue)) {
                 getPlSqlContext().createViolation(this, getLocalizedMessage(CHECK_KEY), node, argumentValue.getTokenValue());
@@ -23,10 +23,12 @@ import java.io.StringWriter;
 
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
+import org.sonar.plugins.plsqlopen.api.PlSqlGrammar;
 import org.sonar.squidbridge.AstScannerExceptionHandler;
 import org.sonar.squidbridge.annotations.ActivatedByDefault;
 import org.sonar.squidbridge.annotations.NoSqale;
 
+import com.sonar.sslr.api.AstNode;
 import com.sonar.sslr.api.RecognitionException;
 
 @Rule(
@@ -38,7 +40,19 @@ import com.sonar.sslr.api.RecognitionException;
 public class ParsingErrorCheck extends AbstractBaseCheck implements AstScannerExceptionHandler {
 
     public static final String CHECK_KEY = "ParsingError";
+    
+    @Override
+    public void init() {
+        subscribeTo(PlSqlGrammar.RECOVERY);
+    }
+    
+    @Override
+    public void visitNode(AstNode node) {
+        getContext().createLineViolation(this, getLocalizedMessage(CHECK_KEY), node);
+    }
 
+    // the syntax errors are reported on the RECOVERY nodes, the exceptions are only received when the file can't be
+    // read or lexed, when there is nothing to recover from (e.g. an empty file) or when the parser fails unexpectedly
     @Override
     public void processException(Exception e) {
       StringWriter exception = new StringWriter();
@@ -39,6 +39,8 @@ import com.sonar.sslr.api.AstNode;
 public class SameBranchCheck extends AbstractBaseCheck {
 
     public static final String CHECK_KEY = "SameBranch";
+    
+    private final StructuralHash structuralHash = new StructuralHash();
 
     @Override
     public void init() {
@@ -73,23 +75,16 @@ public class SameBranchCheck extends AbstractBaseCheck {
     }
     
     private void findSameBranches(List<AstNode> branches) {
-        for (int i = 1; i < branches.size(); i++) {
-            checkBranch(branches, i);
-        }
+        structuralHash.forEachDuplicate(branches, (branch, otherBranch) -> 
+            getPlSqlContext().createViolation(this, getLocalizedMessage(CHECK_KEY), 
+                    branch,
+                    ImmutableList.of(newLocation("Original", otherBranch)),
+                    otherBranch.getToken().getLine()));
     }
-    
-    private void checkBranch(List<AstNode> branches, int index) {
-        AstNode branch = branches.get(index);
-        for (int j = 0; j < index; j++) {
-            AstNode otherBranch = branches.get(j);
-            if (CheckUtils.equalNodes(otherBranch, branch)) {
-                getPlSqlContext().createViolation(this, getLocalizedMessage(CHECK_KEY), 
-                        branch,
-                        ImmutableList.of(newLocation("Original", otherBranch)),
-                        otherBranch.getToken().getLine());
-                return;
-            }
-        }
+
+    @Override
+    public void leaveFile(AstNode astNode) {
+        structuralHash.clear();
     }
 
 }
@@ -40,6 +40,8 @@ import com.sonar.sslr.api.AstNode;
 @ActivatedByDefault
 public class SameConditionCheck extends AbstractBaseCheck {
     public static final String CHECK_KEY = "SameCondition";
+    
+    private final StructuralHash structuralHash = new StructuralHash();
 
     @Override
     public void init() {
@@ -64,23 +66,16 @@ public class SameConditionCheck extends AbstractBaseCheck {
     }
     
     private void findSameConditions(List<AstNode> conditions) {
-        for (int i = 1; i < conditions.size(); i++) {
-            checkCondition(conditions, i);
-        }
+        structuralHash.forEachDuplicate(conditions, (condition, otherCondition) -> 
+            getPlSqlContext().createViolation(this, getLocalizedMessage(CHECK_KEY), 
+                    condition,
+                    ImmutableList.of(newLocation("Original", otherCondition)),
+                    otherCondition.getToken().getLine()));
     }
 
-    private void checkCondition(List<AstNode> conditions, int index) {
-        AstNode condition = conditions.get(index);
-        for (int j = 0; j < index; j++) {
-            AstNode otherCondition = conditions.get(j);
-            if (CheckUtils.equalNodes(otherCondition, condition)) {
-                getPlSqlContext().createViolation(this, getLocalizedMessage(CHECK_KEY), 
-                        condition,
-                        ImmutableList.of(newLocation("Original", otherCondition)),
-                        otherCondition.getToken().getLine());
-                return;
-            }
-        }
+    @Override
+    public void leaveFile(AstNode astNode) {
+        structuralHash.clear();
     }
     
 }
@@ -0,0 +1,83 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.checks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import com.sonar.sslr.api.AstNode;
+
+/**
+ * Hashes AST subtrees so that nodes considered equal by {@link CheckUtils#equalNodes(AstNode, AstNode)} get the
+ * same hash: expressions without effect are skipped the same way, and leaves are hashed by their token value.
+ * The hash of each node is kept, so an instance should only be used for the nodes of a single file.
+ */
+public class StructuralHash {
+
+    private final Map<AstNode, Integer> hashes = new IdentityHashMap<>();
+
+    public int of(AstNode node) {
+        Integer hash = hashes.get(node);
+        if (hash == null) {
+            hash = compute(node);
+            hashes.put(node, hash);
+        }
+        return hash;
+    }
+    
+    private int compute(AstNode node) {
+        AstNode effectiveNode = CheckUtils.skipExpressionsWithoutEffect(node);
+        int hash = 31 * effectiveNode.getType().hashCode() + effectiveNode.getNumberOfChildren();
+        if (effectiveNode.getNumberOfChildren() == 0) {
+            return 31 * hash + effectiveNode.getToken().getValue().hashCode();
+        }
+        for (AstNode child : effectiveNode.getChildren()) {
+            hash = 31 * hash + of(child);
+        }
+        return hash;
+    }
+    
+    /**
+     * Calls the action for each node which is equal to a previous one, with the first of these previous nodes.
+     * The nodes are grouped by hash and only the nodes of the same group are compared.
+     */
+    public void forEachDuplicate(List<AstNode> nodes, BiConsumer<AstNode, AstNode> action) {
+        Map<Integer, List<AstNode>> nodesByHash = new HashMap<>();
+        for (AstNode node : nodes) {
+            List<AstNode> candidates = nodesByHash.computeIfAbsent(of(node), key -> new ArrayList<>());
+            for (AstNode candidate : candidates) {
+                if (CheckUtils.equalNodes(candidate, node)) {
+                    action.accept(node, candidate);
+                    break;
+                }
+            }
+            candidates.add(node);
+        }
+    }
+    
+    public void clear() {
+        hashes.clear();
+    }
+    
+}
@@ -37,6 +37,8 @@ import com.sonar.sslr.api.AstNode;
 public class ToDateWithoutFormatCheck extends AbstractBaseCheck {
     public static final String CHECK_KEY = "ToDateWithoutFormat";
 
+    private static final MethodMatcher TO_DATE_MATCHER = MethodMatcher.create().name("to_date").addParameter();
+    
     @Override
     public void init() {
         subscribeTo(PlSqlGrammar.METHOD_CALL);
@@ -44,9 +46,7 @@ public class ToDateWithoutFormatCheck extends AbstractBaseCheck {
     
     @Override
     public void visitNode(AstNode node) {
-        MethodMatcher toDate = MethodMatcher.create().name("to_date").addParameter();
-        
-        if (toDate.matches(node)) {
+        if (TO_DATE_MATCHER.matches(node)) {
             getPlSqlContext().createViolation(this, getLocalizedMessage(CHECK_KEY), node);
         }
     }
@@ -23,6 +23,7 @@ import java.util.List;
 
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
+import org.sonar.plsqlopen.matchers.MethodMatch;
 import org.sonar.plsqlopen.matchers.MethodMatcher;
 import org.sonar.plugins.plsqlopen.api.DmlGrammar;
 import org.sonar.plugins.plsqlopen.api.PlSqlGrammar;
@@ -42,6 +43,8 @@ import com.sonar.sslr.api.AstNode;
 public class VariableInCountCheck extends AbstractBaseCheck {
     public static final String CHECK_KEY = "VariableInCount";
     
+    private static final MethodMatcher COUNT_MATCHER = MethodMatcher.create().name("count").addParameter();
+    
     @Override
     public void init() {
         subscribeTo(PlSqlGrammar.METHOD_CALL);
@@ -49,13 +52,14 @@ public class VariableInCountCheck extends AbstractBaseCheck {
     
     @Override
     public void visitNode(AstNode node) {
-        MethodMatcher count = MethodMatcher.create().name("count").addParameter();
-        
-        if (!node.getParent().is(DmlGrammar.SELECT_COLUMN) || !count.matches(node)) {
+        if (!node.getParent().is(DmlGrammar.SELECT_COLUMN)) {
             return;
         }
         
-        checkArguments(node, count.getArguments(node));
+        MethodMatch count = COUNT_MATCHER.match(node);
+        if (count != null) {
+            checkArguments(node, count.getArguments());
+        }
     }
     
     protected void checkArguments(AstNode currentNode, List<AstNode> arguments) {
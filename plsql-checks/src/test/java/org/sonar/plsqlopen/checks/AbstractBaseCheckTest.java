@@ -0,0 +1,52 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.checks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Locale;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class AbstractBaseCheckTest {
+
+    private final Locale defaultLocale = Locale.getDefault();
+    
+    @After
+    public void tearDown() {
+        Locale.setDefault(defaultLocale);
+    }
+    
+    @Test
+    public void shouldKeepTheMessagesOfEachLocaleApart() {
+        EmptyBlockCheck check = new EmptyBlockCheck();
+        
+        Locale.setDefault(Locale.ENGLISH);
+        assertThat(check.getLocalizedMessage("EmptyBlock")).isEqualTo("Either remove or fill this block of code.");
+        
+        Locale.setDefault(new Locale("pt", "BR"));
+        assertThat(check.getLocalizedMessage("EmptyBlock")).isEqualTo("Remova ou preencha esse bloco de código.");
+        
+        Locale.setDefault(Locale.ENGLISH);
+        assertThat(check.getLocalizedMessage("EmptyBlock")).isEqualTo("Either remove or fill this block of code.");
+    }
+    
+}
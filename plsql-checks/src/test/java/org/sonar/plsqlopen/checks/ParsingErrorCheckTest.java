@@ -34,5 +34,11 @@ public class ParsingErrorCheckTest extends BaseCheckTest {
         AnalyzerMessage issue = messages.iterator().next();
         assertThat(issue.getLine()).isEqualTo(1);
     }
+    
+    @Test
+    public void shouldReportEachSkippedPart() {
+        Collection<AnalyzerMessage> messages = scanFile("parsing_error_recovery.sql", new ParsingErrorCheck());
+        assertThat(messages).extracting("line").containsOnly(3, 6);
+    }
 
 }
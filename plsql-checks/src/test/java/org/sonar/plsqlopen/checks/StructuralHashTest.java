@@ -0,0 +1,102 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.checks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.sonar.plsqlopen.parser.PlSqlParser;
+import org.sonar.plsqlopen.squid.PlSqlConfiguration;
+import org.sonar.plugins.plsqlopen.api.PlSqlGrammar;
+
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.Grammar;
+import com.sonar.sslr.impl.Parser;
+
+public class StructuralHashTest {
+
+    private final Parser<Grammar> p = PlSqlParser.create(new PlSqlConfiguration(StandardCharsets.UTF_8));
+    private final StructuralHash hash = new StructuralHash();
+    
+    @Test
+    public void equalNodesHaveTheSameHash() {
+        assertSameHash("a + b", "(a + b)");
+        assertSameHash("a + b", "a+b");
+        assertSameHash("x", "nvl(x, null)");
+        assertSameHash("x", "nvl(x, '')");
+        assertSameHash("f(x, 'y')", "f((x), 'y')");
+    }
+    
+    @Test
+    public void leavesAreHashedByTheirValue() {
+        assertThat(hash.of(parse("a + b"))).isNotEqualTo(hash.of(parse("a + c")));
+        assertThat(hash.of(parse("'a'"))).isNotEqualTo(hash.of(parse("'b'")));
+        assertThat(hash.of(parse("nvl(x, y)"))).isNotEqualTo(hash.of(parse("x")));
+    }
+    
+    @Test
+    public void nodesWithTheSameHashAreComparedBeforeBeingReported() {
+        // "B0" and "AO" have the same String hash code
+        AstNode first = parse("B0");
+        AstNode second = parse("AO");
+        assertThat(hash.of(first)).isEqualTo(hash.of(second));
+        assertThat(CheckUtils.equalNodes(first, second)).isFalse();
+        
+        List<AstNode[]> duplicates = new ArrayList<>();
+        hash.forEachDuplicate(Arrays.asList(first, second), (node, previous) -> duplicates.add(new AstNode[] {node, previous}));
+        assertThat(duplicates).isEmpty();
+    }
+    
+    @Test
+    public void duplicatesAreReportedInOrderWithTheirFirstOccurrence() {
+        AstNode a = parse("a");
+        AstNode b = parse("b");
+        AstNode bracketedA = parse("(a)");
+        AstNode otherB = parse("b");
+        AstNode otherA = parse("nvl(a, null)");
+        
+        List<AstNode[]> duplicates = new ArrayList<>();
+        hash.forEachDuplicate(Arrays.asList(a, b, bracketedA, otherB, otherA),
+                (node, previous) -> duplicates.add(new AstNode[] {node, previous}));
+        
+        assertThat(duplicates).hasSize(3);
+        assertThat(duplicates.get(0)).containsExactly(bracketedA, a);
+        assertThat(duplicates.get(1)).containsExactly(otherB, b);
+        assertThat(duplicates.get(2)).containsExactly(otherA, a);
+    }
+    
+    private void assertSameHash(String first, String second) {
+        AstNode firstNode = parse(first);
+        AstNode secondNode = parse(second);
+        assertThat(CheckUtils.equalNodes(firstNode, secondNode)).isTrue();
+        assertThat(hash.of(firstNode)).isEqualTo(hash.of(secondNode));
+    }
+    
+    private AstNode parse(String text) {
+        p.setRootRule(p.getGrammar().rule(PlSqlGrammar.EXPRESSION));
+        return p.parse(text).getFirstChild();
+    }
+    
+}
@@ -0,0 +1,15 @@
+select 1 from dual;
+
+this is not valid;
+commit;
+
+create or replace procedure foo is
+begin
+  x := ;
+end;
+/
+
+begin
+  null;
+end;
+/
@@ -19,8 +19,12 @@
  */
 package org.sonar.plsqlopen;
 
+import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.annotation.Nullable;
 
@@ -32,9 +36,13 @@ import com.sonar.sslr.api.Token;
 
 public class AnalyzerMessage extends CheckMessage {
 
+    private static final int MAX_CACHED_FORMATS = 1000;
+    private static final ConcurrentMap<String, MessageFormat> FORMATS = new ConcurrentHashMap<>();
+    
     @Nullable
     private TextSpan textSpan;
     private final List<AnalyzerMessage> secondaryLocations = new ArrayList<>();
+    private String text;
     
     public AnalyzerMessage(CodeVisitor check, String message, int line, Object... messageArguments) {
         this(check, message, line > 0 ? new TextSpan(line, -1, line, -1) : null, messageArguments);
@@ -48,6 +56,37 @@ public class AnalyzerMessage extends CheckMessage {
         }
     }
     
+    /**
+     * The message is only formatted when it is first requested, usually when the issue is saved, and then kept.
+     */
+    @Override
+    public String getText(Locale locale) {
+        return formatDefaultMessage();
+    }
+    
+    @Override
+    public String formatDefaultMessage() {
+        if (text == null) {
+            text = format(getDefaultMessage(), getMessageArguments());
+        }
+        return text;
+    }
+    
+    private static String format(String pattern, Object[] arguments) {
+        if (arguments.length == 0) {
+            return pattern;
+        }
+        MessageFormat format = FORMATS.get(pattern);
+        if (format == null) {
+            format = new MessageFormat(pattern);
+            if (FORMATS.size() < MAX_CACHED_FORMATS) {
+                FORMATS.putIfAbsent(pattern, format);
+            }
+        }
+        // a MessageFormat isn't thread-safe, so each message is formatted by a copy of the parsed pattern
+        return ((MessageFormat) format.clone()).format(arguments);
+    }
+    
     @Nullable
     public TextSpan getLocation() {
         return textSpan;
@@ -19,8 +19,10 @@
  */
 package org.sonar.plsqlopen;
 
+import java.io.File;
 import java.util.List;
 
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.symbol.NewSymbolTable;
 import org.sonar.plsqlopen.metadata.FormsMetadata;
 import org.sonar.plugins.plsqlopen.api.symbols.Scope;
@@ -29,6 +31,7 @@ import org.sonar.squidbridge.SquidAstVisitorContextImpl;
 import org.sonar.squidbridge.api.CodeCheck;
 import org.sonar.squidbridge.api.CodeVisitor;
 import org.sonar.squidbridge.api.SourceProject;
+import org.sonar.squidbridge.measures.MetricDef;
 
 import com.google.common.collect.ImmutableList;
 import com.sonar.sslr.api.AstNode;
@@ -40,12 +43,41 @@ public class DefaultPlSqlVisitorContext<G extends Grammar> extends SquidAstVisit
     private SonarComponents components;
     private SymbolTable symbolTable;
     private Scope scope;
+    private InputFile inputFile;
+    private IssueSink issues;
+    private FormsMetadata formsMetadata;
+    private boolean formsMetadataResolved;
     
     public DefaultPlSqlVisitorContext(SourceProject project, SonarComponents components) {
         super(project);
         this.components = components;
     }
     
+    @Override
+    public void setFile(File file, MetricDef filesMetric) {
+        flushIssues();
+        super.setFile(file, filesMetric);
+        inputFile = components != null ? components.inputFromIOFile(file) : null;
+        issues = new IssueSink(components, inputFile);
+        formsMetadata = null;
+        formsMetadataResolved = false;
+    }
+    
+    @Override
+    public InputFile getInputFile() {
+        return inputFile;
+    }
+    
+    /**
+     * Reports the issues of the current file which are still buffered. The scanner calls it after the
+     * visitors leave each file.
+     */
+    public void flushIssues() {
+        if (issues != null) {
+            issues.flush();
+        }
+    }
+    
     @Override
     public SymbolTable getSymbolTable() {
         return symbolTable;
@@ -58,7 +90,12 @@ public class DefaultPlSqlVisitorContext<G extends Grammar> extends SquidAstVisit
     
     @Override
     public NewSymbolTable getSymbolizable() {
-        return components.symbolizableFor(components.inputFromIOFile(getFile()));
+        return components.symbolizableFor(inputFile);
+    }
+    
+    @Override
+    public void saveSymbolizable(NewSymbolTable symbolizable) {
+        components.save(symbolizable);
     }
     
     @Override
@@ -73,7 +110,11 @@ public class DefaultPlSqlVisitorContext<G extends Grammar> extends SquidAstVisit
 
     @Override
     public FormsMetadata getFormsMetadata() {
-        return components.getFormsMetadata();
+        if (!formsMetadataResolved) {
+            formsMetadata = getFile() != null ? components.getFormsMetadata(getFile()) : components.getFormsMetadata();
+            formsMetadataResolved = true;
+        }
+        return formsMetadata;
     }
     
     @Override
@@ -92,8 +133,7 @@ public class DefaultPlSqlVisitorContext<G extends Grammar> extends SquidAstVisit
         if (line > 0) {
             checkMessage.setLine(line);
         }
-        components.reportIssue(checkMessage, components.inputFromIOFile(getFile()));
-        log(checkMessage);
+        report(checkMessage);
     }
     
     @Override
@@ -109,7 +149,15 @@ public class DefaultPlSqlVisitorContext<G extends Grammar> extends SquidAstVisit
                     new AnalyzerMessage(check, location.msg, AnalyzerMessage.textSpanFor(location.node), messageParameters);
             checkMessage.addSecondaryLocation(secondaryLocation);
         }
-        components.reportIssue(checkMessage, components.inputFromIOFile(getFile()));
+        report(checkMessage);
+    }
+
+    private void report(AnalyzerMessage checkMessage) {
+        if (issues != null) {
+            issues.add(checkMessage);
+        } else {
+            components.reportIssue(checkMessage, components.inputFromIOFile(getFile()));
+        }
         log(checkMessage);
     }
 
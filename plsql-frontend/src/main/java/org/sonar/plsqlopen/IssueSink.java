@@ -0,0 +1,61 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.sonar.api.batch.fs.InputFile;
+
+/**
+ * Collects the issues of a single file and reports them to {@link SonarComponents} in batches, so the
+ * sensor context is locked once per batch instead of once per issue.
+ */
+public class IssueSink {
+
+    static final int MAX_PENDING_ISSUES = 1000;
+
+    private final SonarComponents components;
+    private final InputFile inputFile;
+    private final List<AnalyzerMessage> pending = new ArrayList<>();
+
+    public IssueSink(SonarComponents components, @Nullable InputFile inputFile) {
+        this.components = components;
+        this.inputFile = inputFile;
+    }
+
+    public void add(AnalyzerMessage message) {
+        pending.add(message);
+        if (pending.size() >= MAX_PENDING_ISSUES) {
+            flush();
+        }
+    }
+
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        components.reportIssues(pending, inputFile);
+        pending.clear();
+    }
+
+}
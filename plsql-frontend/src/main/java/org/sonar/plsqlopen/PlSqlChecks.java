@@ -19,9 +19,14 @@
  */
 package org.sonar.plsqlopen;
 
+import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.Nullable;
@@ -29,6 +34,8 @@ import javax.annotation.Nullable;
 import org.sonar.api.batch.rule.CheckFactory;
 import org.sonar.api.batch.rule.Checks;
 import org.sonar.api.rule.RuleKey;
+import org.sonar.check.RuleProperty;
+import org.sonar.plsqlopen.cache.AnalysisCache;
 import org.sonar.plsqlopen.checks.PlSqlCheck;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -38,6 +45,8 @@ public class PlSqlChecks {
 
     private final CheckFactory checkFactory;
     private Set<Checks<PlSqlCheck>> checksByRepository = new HashSet<>();
+    private Map<PlSqlCheck, RuleKey> ruleKeysOfCopies = new IdentityHashMap<>();
+    private Map<Class<?>, List<Field>> propertiesByClass = new HashMap<>();
 
     private PlSqlChecks(CheckFactory checkFactory) {
       this.checkFactory = checkFactory;
@@ -77,9 +86,95 @@ public class PlSqlChecks {
       return allVisitors;
     }
 
+    /**
+     * Creates a copy of each active check, with the same rule parameters. Checks keep state while
+     * a file is visited, so each scanner running concurrently needs its own copies. This method
+     * isn't thread-safe: all the copies should be created before the analysis starts.
+     * <p>
+     * A copy is created with the public constructor without arguments of the check, then only the
+     * fields annotated with {@link RuleProperty} are copied from the original: any other state set on
+     * the original after its creation is lost. A check without such a constructor can't be copied and
+     * makes this method throw an {@link IllegalStateException}.
+     */
+    public List<PlSqlCheck> newInstances() {
+      List<PlSqlCheck> allVisitors = new ArrayList<>();
+
+      for (Checks<PlSqlCheck> checks : checksByRepository) {
+        for (PlSqlCheck check : checks.all()) {
+          PlSqlCheck copy = copyOf(check);
+          ruleKeysOfCopies.put(copy, checks.ruleKey(check));
+          allVisitors.add(copy);
+        }
+      }
+
+      return allVisitors;
+    }
+
+    /**
+     * Describes the active checks with their rule parameters and the jars providing their classes, so any change in
+     * the quality profile or in a plugin providing the checks gives a different fingerprint.
+     */
+    public String fingerprint() {
+      List<String> entries = new ArrayList<>();
+
+      for (Checks<PlSqlCheck> checks : checksByRepository) {
+        for (PlSqlCheck check : checks.all()) {
+          Class<?> checkClass = check.getClass();
+          StringBuilder entry = new StringBuilder()
+            .append(checks.ruleKey(check)).append('=').append(checkClass.getName())
+            .append('@').append(AnalysisCache.versionOf(checkClass));
+          try {
+            for (Field field : ruleProperties(checkClass)) {
+              entry.append(',').append(field.getName()).append('=').append(field.get(check));
+            }
+          } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Fail to read the properties of the check " + checkClass.getName(), e);
+          }
+          entries.add(entry.toString());
+        }
+      }
+
+      Collections.sort(entries);
+      return String.join(";", entries);
+    }
+
+    private PlSqlCheck copyOf(PlSqlCheck check) {
+      Class<?> checkClass = check.getClass();
+      try {
+        PlSqlCheck copy = (PlSqlCheck) checkClass.getDeclaredConstructor().newInstance();
+        for (Field field : ruleProperties(checkClass)) {
+          field.set(copy, field.get(check));
+        }
+        return copy;
+      } catch (NoSuchMethodException | IllegalAccessException e) {
+        throw new IllegalStateException("Fail to create a copy of the check " + checkClass.getName()
+          + ": a public constructor without arguments is required to analyze the files in parallel", e);
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalStateException("Fail to create a copy of the check " + checkClass.getName(), e);
+      }
+    }
+
+    private List<Field> ruleProperties(Class<?> checkClass) {
+      return propertiesByClass.computeIfAbsent(checkClass, c -> {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> type = c; type != null; type = type.getSuperclass()) {
+          for (Field field : type.getDeclaredFields()) {
+            if (field.isAnnotationPresent(RuleProperty.class)) {
+              field.setAccessible(true);
+              fields.add(field);
+            }
+          }
+        }
+        return fields;
+      });
+    }
+
     @Nullable
     public RuleKey ruleKey(PlSqlCheck check) {
-      RuleKey ruleKey;
+      RuleKey ruleKey = ruleKeysOfCopies.get(check);
+      if (ruleKey != null) {
+        return ruleKey;
+      }
 
       for (Checks<PlSqlCheck> checks : checksByRepository) {
         ruleKey = checks.ruleKey(check);
@@ -22,6 +22,9 @@ package org.sonar.plsqlopen;
 import java.io.File;
 import java.util.List;
 
+import javax.annotation.Nullable;
+
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.symbol.NewSymbolTable;
 import org.sonar.plsqlopen.metadata.FormsMetadata;
 import org.sonar.plugins.plsqlopen.api.symbols.Scope;
@@ -38,14 +41,26 @@ public interface PlSqlVisitorContext {
     
     File getFile();
     
+    /**
+     * Returns the file being analyzed as it is indexed by SonarQube, or null if it isn't part of the project.
+     */
+    @Nullable
+    InputFile getInputFile();
+    
     void setSymbolTable(SymbolTable symbolTable);
     
     NewSymbolTable getSymbolizable();
     
+    void saveSymbolizable(NewSymbolTable symbolizable);
+    
     void setCurrentScope(Scope scope);
     
     Scope getCurrentScope();
     
+    /**
+     * Returns the Oracle Forms metadata of the form the file being analyzed belongs to, or null if there is none.
+     */
+    @Nullable
     FormsMetadata getFormsMetadata();
     
     void createLineViolation(CodeCheck check, String message, AstNode node, Object... messageParameters);
@@ -21,11 +21,20 @@ package org.sonar.plsqlopen;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nullable;
 
 import org.sonar.api.batch.BatchSide;
 import org.sonar.api.batch.fs.FileSystem;
@@ -35,13 +44,14 @@ import org.sonar.api.batch.sensor.symbol.NewSymbolTable;
 import org.sonar.api.rule.RuleKey;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
+import org.sonar.plsqlopen.cache.AnalysisCache;
+import org.sonar.plsqlopen.cache.CachedResults;
 import org.sonar.plsqlopen.checks.PlSqlCheck;
 import org.sonar.plsqlopen.metadata.FormsMetadata;
+import org.sonar.plsqlopen.metadata.FormsMetadataReader;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
-import com.google.gson.Gson;
-import com.google.gson.stream.JsonReader;
 
 @BatchSide
 public class SonarComponents {
@@ -52,6 +62,9 @@ public class SonarComponents {
     private PlSqlChecks checks;
     private FileSystem fs;
     private FormsMetadata formsMetadata;
+    private final Map<String, File> formsMetadataFiles = new HashMap<>();
+    private final ConcurrentMap<String, Optional<FormsMetadata>> formsMetadataByForm = new ConcurrentHashMap<>();
+    private AnalysisCache cache;
     
     public SonarComponents(SensorContext context) {
         this.context = context;
@@ -62,6 +75,49 @@ public class SonarComponents {
         return this.formsMetadata;
     }
     
+    public boolean hasFormsMetadata() {
+        return formsMetadata != null || !formsMetadataFiles.isEmpty();
+    }
+    
+    /**
+     * Returns the metadata of the form a source file belongs to. When the metadata was loaded from a directory,
+     * the form is the one whose metadata file is named like the source file (up to its first dot) or like the
+     * closest of its parent directories. Otherwise, the single metadata file applies to every source file.
+     */
+    @Nullable
+    public FormsMetadata getFormsMetadata(File file) {
+        if (!formsMetadataFiles.isEmpty()) {
+            String form = formOf(file);
+            if (form != null) {
+                // each form is read on its first use and only once, even with parallel workers or when it can't be read
+                return formsMetadataByForm.computeIfAbsent(form, key -> Optional.ofNullable(readMetadataFile(formsMetadataFiles.get(key))))
+                        .orElse(null);
+            }
+        }
+        return formsMetadata;
+    }
+    
+    @Nullable
+    private String formOf(File file) {
+        String name = file.getName();
+        int dot = name.indexOf('.');
+        String form = formName(dot > 0 ? name.substring(0, dot) : name);
+        if (formsMetadataFiles.containsKey(form)) {
+            return form;
+        }
+        for (File parent = file.getAbsoluteFile().getParentFile(); parent != null; parent = parent.getParentFile()) {
+            form = formName(parent.getName());
+            if (formsMetadataFiles.containsKey(form)) {
+                return form;
+            }
+        }
+        return null;
+    }
+    
+    private static String formName(String name) {
+        return name.toUpperCase(Locale.ENGLISH);
+    }
+    
     @VisibleForTesting
     public void setFormsMetadata(FormsMetadata metadata) {
         this.formsMetadata = metadata;
@@ -71,21 +127,56 @@ public class SonarComponents {
         return context.newSymbolTable().onFile(inputPath);
     }
     
+    public void save(NewSymbolTable symbolizable) {
+        // the sensor context isn't thread-safe and the files may be analyzed in parallel
+        synchronized (context) {
+            symbolizable.save();
+        }
+    }
+    
     public void setChecks(PlSqlChecks checks) {
         this.checks = checks;
     }
+    
+    public void setCache(@Nullable AnalysisCache cache) {
+        this.cache = cache;
+    }
 
     public InputFile inputFromIOFile(File file) {
         return fs.inputFile(fs.predicates().is(file));
     }
 
     public void reportIssue(AnalyzerMessage message, InputFile inputFile) {    
-        RuleKey ruleKey = checks.ruleKey((PlSqlCheck) message.getCheck());
-        reportIssue(inputFile, ruleKey, message);
+        reportIssues(Collections.singletonList(message), inputFile);
     }
 
-    @VisibleForTesting
-    void reportIssue(InputFile inputFile, RuleKey key, AnalyzerMessage message) {
+    public void reportIssues(List<AnalyzerMessage> messages, InputFile inputFile) {
+        CachedResults results = cache != null ? cache.record(inputFile.file()) : null;
+        List<PlSqlIssue> issues = new ArrayList<>(messages.size());
+        for (AnalyzerMessage message : messages) {
+            RuleKey ruleKey = checks.ruleKey((PlSqlCheck) message.getCheck());
+            if (results != null) {
+                results.addIssue(ruleKey, message);
+            }
+            issues.add(createIssue(inputFile, ruleKey, message));
+        }
+        save(issues);
+    }
+
+    public void reportIssue(InputFile inputFile, RuleKey key, AnalyzerMessage message) {
+        save(Collections.singletonList(createIssue(inputFile, key, message)));
+    }
+    
+    private void save(List<PlSqlIssue> issues) {
+        // the sensor context isn't thread-safe and the files may be analyzed in parallel
+        synchronized (context) {
+            for (PlSqlIssue issue : issues) {
+                issue.save();
+            }
+        }
+    }
+
+    private PlSqlIssue createIssue(InputFile inputFile, RuleKey key, AnalyzerMessage message) {
         PlSqlIssue issue = PlSqlIssue.create(context, key, message.getCost());
         String text = message.getText(Locale.ENGLISH);
         Integer line = message.getLine();
@@ -121,7 +212,7 @@ public class SonarComponents {
                 LOG.debug("addSecondaryLocation FAIL", e);
             }
         }
-        issue.save();
+        return issue;
     }
     
     public void loadMetadataFile(String metadataFile) {
@@ -129,13 +220,29 @@ public class SonarComponents {
             return;
         }
         
-        try (JsonReader reader = new JsonReader(new FileReader(metadataFile))) {
-            this.formsMetadata = new Gson().fromJson(reader, FormsMetadata.class);
+        File file = new File(metadataFile);
+        if (file.isDirectory()) {
+            File[] files = file.listFiles((dir, name) -> name.toLowerCase(Locale.ENGLISH).endsWith(".json"));
+            for (File formFile : files != null ? files : new File[0]) {
+                String name = formFile.getName();
+                formsMetadataFiles.put(formName(name.substring(0, name.length() - ".json".length())), formFile);
+            }
+            LOG.info("Found the metadata of {} Oracle Forms modules in {}.", formsMetadataFiles.size(), metadataFile);
+        } else {
+            this.formsMetadata = readMetadataFile(file);
+        }
+    }
+    
+    @Nullable
+    private static FormsMetadata readMetadataFile(File file) {
+        try {
+            return FormsMetadataReader.read(file);
         } catch (FileNotFoundException e) {
-            LOG.warn("The metadata file {} was not found.", metadataFile);
-        } catch (IOException e) {
-            LOG.error("Error reading the metadata file at {}.", metadataFile, e);
+            LOG.warn("The metadata file {} was not found.", file);
+        } catch (IOException | IllegalStateException e) {
+            LOG.error("Error reading the metadata file at {}.", file, e);
         }
+        return null;
     }
     
     @VisibleForTesting
@@ -152,8 +259,8 @@ public class SonarComponents {
         }
 
         @Override
-        public void reportIssue(AnalyzerMessage message, InputFile inputFile) {    
-            messages.add(message);
+        public void reportIssues(List<AnalyzerMessage> messages, InputFile inputFile) {
+            this.messages.addAll(messages);
         }
 
         public Collection<AnalyzerMessage> getIssues() {
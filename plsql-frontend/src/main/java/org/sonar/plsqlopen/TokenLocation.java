@@ -23,10 +23,10 @@ import com.sonar.sslr.api.Token;
 
 public class TokenLocation {
     
-    private int line;
-    private int column;
-    private int endLine;
-    private int endColumn;
+    private final int line;
+    private final int column;
+    private final int endLine;
+    private final int endColumn;
     
     private TokenLocation(int line, int column, int endLine, int endColumn) {
         this.line = line;
@@ -52,13 +52,47 @@ public class TokenLocation {
     }
     
     public static TokenLocation from(Token token) {
-        String[] lines = token.getValue().split("\\r\\n|\\n|\\r");
-        int endLineOffset = token.getColumn() + token.getValue().length();
-        int endLine = token.getLine() + lines.length - 1;
-        if (endLine != token.getLine()) {
-            endLineOffset = lines[lines.length - 1].length();
+        return new TokenLocation(token.getLine(), token.getColumn(), token.getLine() + lineBreaks(token.getValue()), endColumn(token));
+    }
+    
+    /**
+     * Returns the column after the last character of a token, on its last line, without creating a
+     * {@link TokenLocation}.
+     */
+    public static int endColumn(Token token) {
+        String value = token.getValue();
+        for (int i = value.length() - 1; i >= 0; i--) {
+            char c = value.charAt(i);
+            if (c == '\n' || c == '\r') {
+                return value.length() - i - 1;
+            }
+        }
+        return token.getColumn() + value.length();
+    }
+    
+    /**
+     * Counts the line terminators in a token value, the same way the lexer advances its line counter,
+     * without splitting the value.
+     */
+    public static int lineBreaks(String value) {
+        int lineBreaks = 0;
+        for (int i = 0; i < value.length(); i++) {
+            int next = afterLineTerminator(value, i);
+            if (next > i) {
+                lineBreaks++;
+                i = next - 1;
+            }
+        }
+        return lineBreaks;
+    }
+    
+    // the index after the line terminator ("\r\n", "\n" or "\r") at the given index, or the index itself if there is none
+    private static int afterLineTerminator(String value, int index) {
+        char c = value.charAt(index);
+        if (c == '\r') {
+            return index + 1 < value.length() && value.charAt(index + 1) == '\n' ? index + 2 : index + 1;
         }
-        return new TokenLocation(token.getLine(), token.getColumn(), endLine, endLineOffset);
+        return c == '\n' ? index + 1 : index;
     }
 
 }
@@ -0,0 +1,205 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.ast;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.AstNodeType;
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.api.TokenType;
+import com.sonar.sslr.api.Trivia;
+
+/**
+ * Reads an AST written by {@link AstWriter}. A file is mapped in memory instead of being copied to the heap.
+ * Each string is decoded the first time it is needed, and the tokens with the same value share the instance.
+ */
+public final class AstReader {
+
+    private final ByteBuffer buffer;
+    private int[] stringOffsets;
+    private int[] stringLengths;
+    private String[] strings;
+    private AstNodeType[] types;
+    private AstNodeType[] kindTypes;
+    private String[] kindNames;
+    private Token[] tokens;
+    private URI uri;
+    
+    private AstReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+    
+    public static AstNode read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+    
+    public static AstNode read(ByteBuffer buffer) {
+        return new AstReader(buffer.duplicate()).readTree();
+    }
+    
+    private AstNode readTree() {
+        if (buffer.getInt() != AstWriter.MAGIC) {
+            throw new IllegalArgumentException("The content isn't a serialized AST");
+        }
+        int version = readVarInt();
+        if (version != AstWriter.VERSION) {
+            throw new IllegalArgumentException("Unsupported version of the serialized AST: " + version);
+        }
+        
+        readStrings();
+        readTypes();
+        readKinds();
+        uri = URI.create(string(0));
+        readTokens();
+        return readNode();
+    }
+    
+    private void readStrings() {
+        int count = readVarInt();
+        stringOffsets = new int[count];
+        stringLengths = new int[count];
+        strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            stringLengths[i] = readVarInt();
+        }
+        int offset = buffer.position();
+        for (int i = 0; i < count; i++) {
+            stringOffsets[i] = offset;
+            offset += stringLengths[i];
+        }
+        buffer.position(offset);
+    }
+    
+    private String string(int index) {
+        String value = strings[index];
+        if (value == null) {
+            byte[] bytes = new byte[stringLengths[index]];
+            ByteBuffer view = buffer.duplicate();
+            view.position(stringOffsets[index]);
+            view.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = value;
+        }
+        return value;
+    }
+    
+    private void readTypes() {
+        types = new AstNodeType[readVarInt()];
+        for (int i = 0; i < types.length; i++) {
+            String className = string(readVarInt());
+            String constantName = string(readVarInt());
+            types[i] = typeOf(className, constantName);
+        }
+    }
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static AstNodeType typeOf(String className, String constantName) {
+        try {
+            Class<?> type = Class.forName(className, false, AstReader.class.getClassLoader());
+            return (AstNodeType) Enum.valueOf((Class<? extends Enum>) type.asSubclass(Enum.class), constantName);
+        } catch (ClassNotFoundException | IllegalArgumentException | ClassCastException e) {
+            throw new IllegalArgumentException("Unknown node type " + className + "." + constantName, e);
+        }
+    }
+    
+    private void readKinds() {
+        int count = readVarInt();
+        kindTypes = new AstNodeType[count];
+        kindNames = new String[count];
+        for (int i = 0; i < count; i++) {
+            kindTypes[i] = types[readVarInt()];
+            kindNames[i] = string(readVarInt());
+        }
+    }
+    
+    private void readTokens() {
+        tokens = new Token[readVarInt()];
+        for (int i = 0; i < tokens.length; i++) {
+            Token.Builder builder = readToken();
+            int triviaCount = readVarInt();
+            if (triviaCount > 0) {
+                List<Trivia> trivia = new ArrayList<>(triviaCount);
+                for (int j = 0; j < triviaCount; j++) {
+                    trivia.add(Trivia.createComment(readToken().build()));
+                }
+                builder.setTrivia(trivia);
+            }
+            tokens[i] = builder.build();
+        }
+    }
+    
+    private Token.Builder readToken() {
+        TokenType type = (TokenType) types[readVarInt()];
+        int line = readVarInt();
+        int column = readVarInt();
+        String value = string(readVarInt());
+        int originalValue = readVarInt();
+        boolean generatedCode = buffer.get() != 0;
+        return Token.builder()
+                .setType(type)
+                .setLine(line)
+                .setColumn(column)
+                .setValueAndOriginalValue(value, originalValue == 0 ? value : string(originalValue - 1))
+                .setURI(uri)
+                .setGeneratedCode(generatedCode);
+    }
+    
+    private AstNode readNode() {
+        int kind = readVarInt();
+        int token = readVarInt();
+        AstNode node = new AstNode(kindTypes[kind], kindNames[kind], token == 0 ? null : tokens[token - 1]);
+        node.setFromIndex(readSignedVarInt());
+        node.setToIndex(readSignedVarInt());
+        int children = readVarInt();
+        for (int i = 0; i < children; i++) {
+            node.addChild(readNode());
+        }
+        return node;
+    }
+    
+    private int readSignedVarInt() {
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    private int readVarInt() {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+    
+}
@@ -0,0 +1,214 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.ast;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.AstNodeType;
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.api.Trivia;
+
+/**
+ * Writes an AST in a compact binary format, which can be read back by {@link AstReader}.
+ * <p>
+ * The file starts with tables of the strings (token values and names), of the node types and of the tokens,
+ * followed by the nodes in pre-order. Each token value is stored once, and nodes and tokens refer to the
+ * entries of the tables by their index. All the integers are written as variable-length quantities, so most
+ * of them use a single byte. The node types must be enum constants, such as the rules of
+ * {@link org.sonar.plugins.plsqlopen.api.PlSqlGrammar} and the token types.
+ */
+public final class AstWriter {
+
+    static final int MAGIC = 0x504c4153;
+    static final int VERSION = 1;
+    
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final List<String> stringTable = new ArrayList<>();
+    private final Map<AstNodeType, Integer> types = new HashMap<>();
+    private final List<AstNodeType> typeTable = new ArrayList<>();
+    private final Map<AstNodeType, Map<String, Integer>> kinds = new HashMap<>();
+    private final ByteArrayOutputStream kindTable = new ByteArrayOutputStream();
+    private final Map<Token, Integer> tokens = new IdentityHashMap<>();
+    private final ByteArrayOutputStream tokenTable = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream nodes = new ByteArrayOutputStream();
+    private int kindCount;
+    
+    private AstWriter() {
+    }
+    
+    public static void write(AstNode ast, Path path) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            write(ast, out);
+        }
+    }
+    
+    public static void write(AstNode ast, OutputStream out) throws IOException {
+        new AstWriter().writeTree(ast, out);
+    }
+    
+    private void writeTree(AstNode ast, OutputStream out) throws IOException {
+        Token firstToken = ast.getToken();
+        String uri = firstToken != null ? firstToken.getURI().toString() : "";
+        string(uri);
+        writeNode(ast);
+        
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        writeInt(header, MAGIC);
+        writeVarInt(header, VERSION);
+        
+        writeVarInt(header, stringTable.size());
+        List<byte[]> encodedStrings = new ArrayList<>(stringTable.size());
+        for (String value : stringTable) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            encodedStrings.add(bytes);
+            writeVarInt(header, bytes.length);
+        }
+        for (byte[] bytes : encodedStrings) {
+            header.write(bytes);
+        }
+        
+        writeVarInt(header, typeTable.size());
+        for (AstNodeType type : typeTable) {
+            Enum<?> constant = (Enum<?>) type;
+            writeVarInt(header, string(constant.getDeclaringClass().getName()));
+            writeVarInt(header, string(constant.name()));
+        }
+        
+        header.writeTo(out);
+        writeVarInt(out, kindCount);
+        kindTable.writeTo(out);
+        writeVarInt(out, tokens.size());
+        tokenTable.writeTo(out);
+        nodes.writeTo(out);
+    }
+    
+    private void writeNode(AstNode node) throws IOException {
+        writeVarInt(nodes, kind(node));
+        Token token = node.getToken();
+        writeVarInt(nodes, token == null ? 0 : token(token) + 1);
+        writeSignedVarInt(nodes, node.getFromIndex());
+        writeSignedVarInt(nodes, node.getToIndex());
+        writeVarInt(nodes, node.getNumberOfChildren());
+        for (AstNode child : node.getChildren()) {
+            writeNode(child);
+        }
+    }
+    
+    private int kind(AstNode node) throws IOException {
+        Map<String, Integer> kindsOfType = kinds.computeIfAbsent(node.getType(), key -> new HashMap<>());
+        Integer index = kindsOfType.get(node.getName());
+        if (index == null) {
+            index = kindCount++;
+            kindsOfType.put(node.getName(), index);
+            writeVarInt(kindTable, type(node.getType()));
+            writeVarInt(kindTable, string(node.getName()));
+        }
+        return index;
+    }
+    
+    private int token(Token token) throws IOException {
+        Integer index = tokens.get(token);
+        if (index == null) {
+            for (Trivia trivia : token.getTrivia()) {
+                if (!trivia.isComment()) {
+                    throw new IllegalArgumentException("Only comments are supported as trivia: " + trivia);
+                }
+            }
+            index = tokens.size();
+            tokens.put(token, index);
+            writeToken(token);
+            writeVarInt(tokenTable, token.getTrivia().size());
+            for (Trivia trivia : token.getTrivia()) {
+                writeToken(trivia.getToken());
+            }
+        }
+        return index;
+    }
+    
+    private void writeToken(Token token) throws IOException {
+        writeVarInt(tokenTable, type(token.getType()));
+        writeVarInt(tokenTable, token.getLine());
+        writeVarInt(tokenTable, token.getColumn());
+        int value = string(token.getValue());
+        int originalValue = string(token.getOriginalValue());
+        writeVarInt(tokenTable, value);
+        // most of the tokens have the same original value, which is written as zero
+        writeVarInt(tokenTable, originalValue == value ? 0 : originalValue + 1);
+        tokenTable.write(token.isGeneratedCode() ? 1 : 0);
+    }
+    
+    private int type(AstNodeType type) {
+        if (!(type instanceof Enum)) {
+            throw new IllegalArgumentException("Only enum node types are supported: " + type);
+        }
+        Integer index = types.get(type);
+        if (index == null) {
+            index = typeTable.size();
+            types.put(type, index);
+            typeTable.add(type);
+            // the names are written with the other strings, before the table of types
+            string(((Enum<?>) type).getDeclaringClass().getName());
+            string(((Enum<?>) type).name());
+        }
+        return index;
+    }
+    
+    private int string(String value) {
+        Integer index = strings.get(value);
+        if (index == null) {
+            index = stringTable.size();
+            strings.put(value, index);
+            stringTable.add(value);
+        }
+        return index;
+    }
+    
+    private static void writeInt(OutputStream out, int value) throws IOException {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+    
+    private static void writeSignedVarInt(OutputStream out, int value) throws IOException {
+        writeVarInt(out, (value << 1) ^ (value >> 31));
+    }
+    
+    private static void writeVarInt(OutputStream out, int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7f) != 0) {
+            out.write((remaining & 0x7f) | 0x80);
+            remaining >>>= 7;
+        }
+        out.write(remaining);
+    }
+    
+}
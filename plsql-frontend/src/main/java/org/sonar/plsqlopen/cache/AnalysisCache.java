@@ -0,0 +1,293 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nullable;
+
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * Keeps the results of the analysis of each file on disk, so the next analysis can replay them instead of
+ * analyzing again a file that didn't change. An entry is keyed by the path of the file relative to the base
+ * directory and by a fingerprint of everything else the results depend on (plugin version, active rules, settings),
+ * and it is only used while the file keeps the size and the modification time it had before it was analyzed. The
+ * content itself isn't hashed, as the lexer reads the file on its own: hashing it would read every changed file
+ * twice. The path is part of the key as the results of two identical files may differ, e.g. when they belong to
+ * two Oracle Forms modules with their own metadata. The entries that weren't used by the current analysis are
+ * deleted when it is saved.
+ */
+public class AnalysisCache {
+
+    private static final Logger LOG = Loggers.get(AnalysisCache.class);
+    private static final String EXTENSION = ".json.gz";
+    private static final Map<String, String> VERSIONS = new ConcurrentHashMap<>();
+    
+    private final File directory;
+    private final Path baseDir;
+    private final byte[] fingerprint;
+    private final Gson gson = new Gson();
+    private final Map<File, String> keys = new ConcurrentHashMap<>();
+    private final Map<File, Stamp> stamps = new ConcurrentHashMap<>();
+    private final Map<File, CachedResults> recorded = new ConcurrentHashMap<>();
+    private final Set<String> usedKeys = ConcurrentHashMap.newKeySet();
+    
+    public AnalysisCache(File directory, File baseDir, String fingerprint) {
+        this.directory = directory;
+        this.baseDir = baseDir.getAbsoluteFile().toPath();
+        this.fingerprint = fingerprint.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Returns the results saved by a previous analysis of the file, or null if there are none or if the size or the
+     * modification time of the file changed since then. The file itself is not read.
+     */
+    @Nullable
+    public CachedResults load(File file) {
+        Stamp stamp = stampOf(file);
+        if (stamp == null) {
+            return null;
+        }
+        
+        String key = keyOf(file);
+        File entryFile = new File(directory, key + EXTENSION);
+        if (!entryFile.isFile()) {
+            return null;
+        }
+        
+        try (Reader reader = new InputStreamReader(new GZIPInputStream(Files.newInputStream(entryFile.toPath())), StandardCharsets.UTF_8)) {
+            Entry entry = gson.fromJson(reader, Entry.class);
+            if (entry == null || entry.results == null || !stamp.equals(entry.stamp)) {
+                return null;
+            }
+            usedKeys.add(key);
+            return entry.results;
+        } catch (IOException | JsonParseException e) {
+            LOG.debug("Unable to read the cached results of {}", file, e);
+            return null;
+        }
+    }
+    
+    /**
+     * Returns the results of the current analysis of a file, which will be saved with {@link #save()}.
+     */
+    public CachedResults record(File file) {
+        stampOf(file);
+        return recorded.computeIfAbsent(file, f -> new CachedResults());
+    }
+    
+    public void save() {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            LOG.warn("Unable to create the analysis cache directory {}", directory);
+            return;
+        }
+        
+        for (Map.Entry<File, CachedResults> entry : recorded.entrySet()) {
+            Stamp stamp = stamps.get(entry.getKey());
+            if (stamp != null) {
+                String key = keyOf(entry.getKey());
+                write(new File(directory, key + EXTENSION), new Entry(stamp, entry.getValue()));
+                usedKeys.add(key);
+            }
+        }
+        recorded.clear();
+        
+        File[] entries = directory.listFiles((dir, name) -> name.endsWith(EXTENSION)
+                && !usedKeys.contains(name.substring(0, name.length() - EXTENSION.length())));
+        if (entries != null) {
+            for (File entry : entries) {
+                if (!entry.delete()) {
+                    LOG.debug("Unable to delete the stale cache entry {}", entry);
+                }
+            }
+        }
+    }
+    
+    private void write(File target, Entry entry) {
+        try {
+            File temporary = File.createTempFile("entry", ".tmp", directory);
+            try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(temporary.toPath())), StandardCharsets.UTF_8)) {
+                gson.toJson(entry, writer);
+            }
+            Files.move(temporary.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOG.warn("Unable to write the analysis cache entry {}", target, e);
+        }
+    }
+    
+    private String keyOf(File file) {
+        return keys.computeIfAbsent(file, f -> {
+            MessageDigest digest = sha1();
+            digest.update(fingerprint);
+            digest.update(pathOf(f).getBytes(StandardCharsets.UTF_8));
+            return toHex(digest.digest());
+        });
+    }
+    
+    // taken the first time the file is seen, i.e. before it is analyzed, so a change made during the analysis
+    // invalidates the entry
+    @Nullable
+    private Stamp stampOf(File file) {
+        Stamp stamp = stamps.get(file);
+        if (stamp == null) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+                stamp = new Stamp(attributes.size(), attributes.lastModifiedTime().toMillis());
+                Stamp previous = stamps.putIfAbsent(file, stamp);
+                if (previous != null) {
+                    stamp = previous;
+                }
+            } catch (IOException e) {
+                LOG.debug("Unable to read the attributes of {}", file, e);
+            }
+        }
+        return stamp;
+    }
+    
+    // relative to the base directory when possible, so the cache survives a move of the project
+    private String pathOf(File file) {
+        Path path = file.getAbsoluteFile().toPath();
+        if (path.startsWith(baseDir)) {
+            path = baseDir.relativize(path);
+        }
+        return path.toString().replace(File.separatorChar, '/');
+    }
+    
+    /**
+     * Returns a hexadecimal digest of the content, to keep the fingerprint small when it depends on a large input.
+     */
+    public static String hash(byte[] content) {
+        MessageDigest digest = sha1();
+        return toHex(digest.digest(content));
+    }
+    
+    /**
+     * Identifies the content of the jar a class was loaded from, so a plugin rebuilt at the same path (e.g. a
+     * snapshot) gives another version. A class not loaded from a jar is identified by its location.
+     */
+    public static String versionOf(Class<?> type) {
+        CodeSource source = type.getProtectionDomain().getCodeSource();
+        if (source == null || source.getLocation() == null) {
+            return "";
+        }
+        URL location = source.getLocation();
+        return VERSIONS.computeIfAbsent(location.toString(), l -> hashOf(location));
+    }
+    
+    private static String hashOf(URL location) {
+        try {
+            Path path = Paths.get(location.toURI());
+            if (!Files.isRegularFile(path)) {
+                return location.toString();
+            }
+            MessageDigest digest = sha1();
+            byte[] buffer = new byte[8192];
+            try (InputStream input = Files.newInputStream(path)) {
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            return toHex(digest.digest());
+        } catch (IOException | URISyntaxException | IllegalArgumentException | FileSystemNotFoundException e) {
+            LOG.debug("Unable to read {}", location, e);
+            return location.toString();
+        }
+    }
+    
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static final class Stamp {
+        private final long size;
+        private final long lastModified;
+        
+        Stamp(long size, long lastModified) {
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Stamp)) {
+                return false;
+            }
+            Stamp other = (Stamp) obj;
+            return size == other.size && lastModified == other.lastModified;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Long.hashCode(size) * 31 + Long.hashCode(lastModified);
+        }
+    }
+    
+    private static final class Entry {
+        private final Stamp stamp;
+        private final CachedResults results;
+        
+        Entry(Stamp stamp, CachedResults results) {
+            this.stamp = stamp;
+            this.results = results;
+        }
+    }
+    
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+    
+}
@@ -0,0 +1,187 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import org.sonar.api.batch.sensor.highlighting.TypeOfText;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.plsqlopen.AnalyzerMessage;
+import org.sonar.plsqlopen.AnalyzerMessage.TextSpan;
+import org.sonar.plugins.plsqlopen.api.PlSqlMetric;
+
+/**
+ * Everything the analysis of a file saves: the issues, the measures, the CPD tokens, the highlighting and the
+ * symbol references.
+ */
+public class CachedResults {
+
+    private List<Issue> issues = new ArrayList<>();
+    private Map<String, Integer> measures = new HashMap<>();
+    private List<Double> functionComplexities = new ArrayList<>();
+    private List<CpdToken> cpdTokens = new ArrayList<>();
+    private List<Highlighting> highlightings = new ArrayList<>();
+    private List<Symbol> symbols = new ArrayList<>();
+    
+    public List<Issue> getIssues() {
+        return issues;
+    }
+    
+    public void addIssue(RuleKey ruleKey, AnalyzerMessage message) {
+        issues.add(new Issue(ruleKey, message));
+    }
+    
+    public int getMeasure(PlSqlMetric metric) {
+        Integer value = measures.get(metric.getName());
+        return value == null ? 0 : value;
+    }
+    
+    public void setMeasure(PlSqlMetric metric, int value) {
+        measures.put(metric.getName(), value);
+    }
+    
+    public List<Double> getFunctionComplexities() {
+        return functionComplexities;
+    }
+    
+    public void addFunctionComplexity(double complexity) {
+        functionComplexities.add(complexity);
+    }
+    
+    public List<CpdToken> getCpdTokens() {
+        return cpdTokens;
+    }
+    
+    public void addCpdToken(int line, int column, int endLine, int endColumn, String value) {
+        cpdTokens.add(new CpdToken(new TextSpan(line, column, endLine, endColumn), value));
+    }
+    
+    public List<Highlighting> getHighlightings() {
+        return highlightings;
+    }
+    
+    public void addHighlighting(int line, int column, int endLine, int endColumn, TypeOfText type) {
+        highlightings.add(new Highlighting(new TextSpan(line, column, endLine, endColumn), type));
+    }
+    
+    public List<Symbol> getSymbols() {
+        return symbols;
+    }
+    
+    public Symbol addSymbol(int line, int column, int endLine, int endColumn) {
+        Symbol symbol = new Symbol(new TextSpan(line, column, endLine, endColumn));
+        symbols.add(symbol);
+        return symbol;
+    }
+    
+    public static class Issue {
+        private final String ruleKey;
+        private final String message;
+        @Nullable
+        private final Integer line;
+        @Nullable
+        private final TextSpan location;
+        @Nullable
+        private final Double cost;
+        private final List<SecondaryLocation> secondaryLocations = new ArrayList<>();
+        
+        Issue(RuleKey ruleKey, AnalyzerMessage message) {
+            this.ruleKey = ruleKey.toString();
+            this.message = message.getText(Locale.ENGLISH);
+            this.line = message.getLine();
+            this.location = message.getLocation();
+            this.cost = message.getCost();
+            for (AnalyzerMessage secondary : message.getSecondaryLocations()) {
+                secondaryLocations.add(new SecondaryLocation(secondary.getLocation(), secondary.getText(Locale.ENGLISH)));
+            }
+        }
+        
+        public RuleKey getRuleKey() {
+            return RuleKey.parse(ruleKey);
+        }
+        
+        /**
+         * Creates a message with the same text and locations of the one reported by the check.
+         */
+        public AnalyzerMessage toMessage() {
+            AnalyzerMessage analyzerMessage = new AnalyzerMessage(null, message, location);
+            if (line != null) {
+                analyzerMessage.setLine(line);
+            }
+            if (cost != null) {
+                analyzerMessage.setCost(cost);
+            }
+            for (SecondaryLocation secondary : secondaryLocations) {
+                analyzerMessage.addSecondaryLocation(new AnalyzerMessage(null, secondary.message, secondary.location));
+            }
+            return analyzerMessage;
+        }
+    }
+    
+    private static class SecondaryLocation {
+        private final TextSpan location;
+        private final String message;
+        
+        SecondaryLocation(TextSpan location, String message) {
+            this.location = location;
+            this.message = message;
+        }
+    }
+    
+    public static class CpdToken {
+        public final TextSpan location;
+        public final String value;
+        
+        CpdToken(TextSpan location, String value) {
+            this.location = location;
+            this.value = value;
+        }
+    }
+    
+    public static class Highlighting {
+        public final TextSpan location;
+        public final TypeOfText type;
+        
+        Highlighting(TextSpan location, TypeOfText type) {
+            this.location = location;
+            this.type = type;
+        }
+    }
+    
+    public static class Symbol {
+        public final TextSpan declaration;
+        public final List<TextSpan> references = new ArrayList<>();
+        
+        Symbol(TextSpan declaration) {
+            this.declaration = declaration;
+        }
+        
+        public void addReference(int line, int column, int endLine, int endColumn) {
+            references.add(new TextSpan(line, column, endLine, endColumn));
+        }
+    }
+    
+}
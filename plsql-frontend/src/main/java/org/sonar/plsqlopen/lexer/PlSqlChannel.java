@@ -0,0 +1,414 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.lexer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import org.sonar.plugins.plsqlopen.api.PlSqlKeyword;
+import org.sonar.plugins.plsqlopen.api.PlSqlPunctuator;
+import org.sonar.plugins.plsqlopen.api.PlSqlTokenType;
+import org.sonar.sslr.channel.Channel;
+import org.sonar.sslr.channel.CodeReader;
+
+import com.sonar.sslr.api.GenericTokenType;
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.api.TokenType;
+import com.sonar.sslr.api.Trivia;
+import com.sonar.sslr.impl.Lexer;
+
+/**
+ * Reads one token at a time choosing what to match by the current character, without backtracking.
+ * It produces the same tokens as the deprecated regular expressions of {@link PlSqlLexer}, except for
+ * texts with user-defined delimiters (q'[...]'), which end at the first closing delimiter followed by a
+ * quote, as in Oracle, instead of the last one.
+ */
+public class PlSqlChannel extends Channel<Lexer> {
+
+    private static final int EOF = -1;
+    
+    private final char[][][] punctuatorsByFirstChar = new char[128][][];
+    private final PlSqlPunctuator[][] punctuatorTypesByFirstChar = new PlSqlPunctuator[128][];
+    private final StringBuilder tmpBuilder = new StringBuilder();
+    private final Token.Builder tokenBuilder = Token.builder();
+    
+    public PlSqlChannel() {
+        // the longest punctuators are tried first
+        Map<Character, List<PlSqlPunctuator>> punctuators = new HashMap<>();
+        for (PlSqlPunctuator punctuator : PlSqlPunctuator.values()) {
+            punctuators.computeIfAbsent(punctuator.getValue().charAt(0), c -> new ArrayList<>()).add(punctuator);
+        }
+        for (Map.Entry<Character, List<PlSqlPunctuator>> entry : punctuators.entrySet()) {
+            List<PlSqlPunctuator> candidates = entry.getValue();
+            candidates.sort(Comparator.comparingInt((PlSqlPunctuator p) -> p.getValue().length()).reversed());
+            
+            char first = entry.getKey();
+            punctuatorTypesByFirstChar[first] = candidates.toArray(new PlSqlPunctuator[candidates.size()]);
+            punctuatorsByFirstChar[first] = new char[candidates.size()][];
+            for (int i = 0; i < candidates.size(); i++) {
+                punctuatorsByFirstChar[first][i] = candidates.get(i).getValue().toCharArray();
+            }
+        }
+    }
+    
+    @Override
+    public boolean consume(CodeReader code, Lexer lexer) {
+        char ch = code.charAt(0);
+        if (isWhitespace(ch)) {
+            do {
+                code.pop();
+            } while (isWhitespace(peek(code, 0)));
+            return true;
+        }
+        
+        int length = comment(code, ch);
+        if (length > 0) {
+            Token token = newToken(code, lexer, GenericTokenType.COMMENT, length);
+            lexer.addTrivia(Trivia.createComment(token));
+            return true;
+        }
+        
+        if (isDigit(ch) || ch == '.') {
+            if ((length = scientificLiteral(code)) > 0) {
+                return addToken(code, lexer, PlSqlTokenType.SCIENTIFIC_LITERAL, length);
+            }
+            if ((length = realLiteral(code)) > 0) {
+                return addToken(code, lexer, PlSqlTokenType.REAL_LITERAL, length);
+            }
+            if ((length = digits(code, 0)) > 0) {
+                return addToken(code, lexer, PlSqlTokenType.INTEGER_LITERAL, length);
+            }
+        }
+        
+        if ((length = stringLiteral(code, ch)) > 0) {
+            return addToken(code, lexer, PlSqlTokenType.STRING_LITERAL, length);
+        }
+        
+        if ((length = dateLiteral(code, ch)) > 0) {
+            return addToken(code, lexer, PlSqlTokenType.DATE_LITERAL, length);
+        }
+        
+        if ((length = identifier(code)) > 0) {
+            return addIdentifierOrKeyword(code, lexer, PlSqlKeywordTable.lookup(code, length), length);
+        }
+        
+        if (ch == '"' && (length = quotedIdentifier(code)) > 0) {
+            return addIdentifierOrKeyword(code, lexer, null, length);
+        }
+        
+        if (ch < punctuatorsByFirstChar.length && punctuatorsByFirstChar[ch] != null) {
+            char[][] candidates = punctuatorsByFirstChar[ch];
+            for (int i = 0; i < candidates.length; i++) {
+                if (matches(code, candidates[i])) {
+                    return addToken(code, lexer, punctuatorTypesByFirstChar[ch][i], candidates[i].length);
+                }
+            }
+        }
+        
+        return addToken(code, lexer, GenericTokenType.UNKNOWN_CHAR, 1);
+    }
+    
+    private boolean addToken(CodeReader code, Lexer lexer, TokenType type, int length) {
+        lexer.addToken(newToken(code, lexer, type, length));
+        return true;
+    }
+    
+    private Token newToken(CodeReader code, Lexer lexer, TokenType type, int length) {
+        int line = code.getLinePosition();
+        int column = code.getColumnPosition();
+        return tokenBuilder
+                .setType(type)
+                .setValueAndOriginalValue(pop(code, length))
+                .setURI(lexer.getURI())
+                .setLine(line)
+                .setColumn(column)
+                .build();
+    }
+    
+    private boolean addIdentifierOrKeyword(CodeReader code, Lexer lexer, @Nullable PlSqlKeyword keyword, int length) {
+        int line = code.getLinePosition();
+        int column = code.getColumnPosition();
+        String originalValue = pop(code, length);
+        
+        TokenType type;
+        String value;
+        if (keyword != null) {
+            type = keyword;
+            value = PlSqlKeywordTable.upperCaseValue(keyword);
+        } else {
+            value = originalValue.toUpperCase();
+            // some letters outside of the ASCII range are converted to ASCII letters
+            type = isAscii(originalValue) ? null : PlSqlKeywordTable.lookup(value, value.length());
+            if (type == null) {
+                type = GenericTokenType.IDENTIFIER;
+            }
+        }
+        
+        lexer.addToken(tokenBuilder
+                .setType(type)
+                .setValueAndOriginalValue(value, originalValue)
+                .setURI(lexer.getURI())
+                .setLine(line)
+                .setColumn(column)
+                .build());
+        return true;
+    }
+    
+    private String pop(CodeReader code, int length) {
+        tmpBuilder.setLength(0);
+        for (int i = 0; i < length; i++) {
+            code.pop(tmpBuilder);
+        }
+        return tmpBuilder.toString();
+    }
+    
+    private static int comment(CodeReader code, char ch) {
+        int next = peek(code, 1);
+        if (ch == '-' && next == '-') {
+            int i = 2;
+            while (peek(code, i) != EOF && peek(code, i) != '\n' && peek(code, i) != '\r') {
+                i++;
+            }
+            return i;
+        }
+        if (ch == '/' && next == '*') {
+            for (int i = 2; i + 1 < code.length(); i++) {
+                if (code.charAt(i) == '*' && code.charAt(i + 1) == '/') {
+                    return i + 2;
+                }
+            }
+        }
+        return 0;
+    }
+    
+    private static int scientificLiteral(CodeReader code) {
+        int i = digits(code, 0);
+        if (i == 0) {
+            return 0;
+        }
+        if (peek(code, i) == '.') {
+            i++;
+            i += digits(code, i);
+        }
+        
+        int c = peek(code, i);
+        if (c != 'E' && c != 'e') {
+            return 0;
+        }
+        i++;
+        
+        c = peek(code, i);
+        if ((c == '+' || c == '-') && isDigit(peek(code, i + 1))) {
+            i++;
+        }
+        int exponent = digits(code, i);
+        return exponent == 0 ? 0 : i + exponent;
+    }
+    
+    private static int realLiteral(CodeReader code) {
+        int integerPart = digits(code, 0);
+        if (peek(code, integerPart) != '.' || peek(code, integerPart + 1) == '.') {
+            return 0;
+        }
+        int fractionalPart = digits(code, integerPart + 1);
+        if (integerPart == 0 && fractionalPart == 0) {
+            return 0;
+        }
+        return integerPart + 1 + fractionalPart;
+    }
+    
+    private static int stringLiteral(CodeReader code, char ch) {
+        if (ch == '\'') {
+            return simpleStringLiteral(code);
+        }
+        
+        int i = ch == 'n' || ch == 'N' ? 1 : 0;
+        int q = peek(code, i);
+        if ((q == 'q' || q == 'Q') && peek(code, i + 1) == '\'') {
+            return stringLiteralWithCustomDelimiter(code, i + 2);
+        }
+        return 0;
+    }
+    
+    private static int simpleStringLiteral(CodeReader code) {
+        int i = 1;
+        while (true) {
+            int c = peek(code, i);
+            if (c == EOF) {
+                return 0;
+            }
+            if (c != '\'') {
+                i++;
+            } else if (peek(code, i + 1) == '\'') {
+                i += 2;
+            } else {
+                return i + 1;
+            }
+        }
+    }
+    
+    private static int stringLiteralWithCustomDelimiter(CodeReader code, int start) {
+        if (start >= code.length() || isWhitespace(code.charAt(start))) {
+            return 0;
+        }
+        int delimiter = Character.codePointAt(code, start);
+        int closingDelimiter = closingDelimiter(delimiter);
+        int closingLength = Character.charCount(closingDelimiter);
+        
+        // the literal ends at the first closing delimiter followed by a quote, the delimiter is matched as is
+        for (int i = start + Character.charCount(delimiter); i < code.length(); i++) {
+            if (Character.codePointAt(code, i) == closingDelimiter && peek(code, i + closingLength) == '\'') {
+                return i + closingLength + 1;
+            }
+        }
+        return 0;
+    }
+    
+    private static int closingDelimiter(int delimiter) {
+        switch (delimiter) {
+        case '[':
+            return ']';
+        case '(':
+            return ')';
+        case '{':
+            return '}';
+        case '<':
+            return '>';
+        default:
+            return delimiter;
+        }
+    }
+    
+    private static int dateLiteral(CodeReader code, char ch) {
+        if ((ch == 'd' || ch == 'D')
+                && equalsIgnoreCase('A', peek(code, 1))
+                && equalsIgnoreCase('T', peek(code, 2))
+                && equalsIgnoreCase('E', peek(code, 3))
+                && peek(code, 4) == ' '
+                && peek(code, 5) == '\''
+                && digits(code, 6) >= 4 && peek(code, 10) == '-'
+                && digits(code, 11) >= 2 && peek(code, 13) == '-'
+                && digits(code, 14) >= 2 && peek(code, 16) == '\'') {
+            return 17;
+        }
+        return 0;
+    }
+    
+    private static int identifier(CodeReader code) {
+        int length = identifierChar(code, 0, false);
+        if (length == 0) {
+            return 0;
+        }
+        
+        int charCount;
+        while ((charCount = identifierChar(code, length, true)) > 0) {
+            length += charCount;
+        }
+        return length;
+    }
+    
+    private static int identifierChar(CodeReader code, int index, boolean acceptSymbols) {
+        int c = peek(code, index);
+        if (c == EOF) {
+            return 0;
+        }
+        if (c < 128) {
+            return isWordChar(c) || (acceptSymbols && (c == '#' || c == '$')) ? 1 : 0;
+        }
+        int codePoint = Character.codePointAt(code, index);
+        return Character.isLetter(codePoint) ? Character.charCount(codePoint) : 0;
+    }
+    
+    private static int quotedIdentifier(CodeReader code) {
+        if (peek(code, 1) == EOF || isLineTerminator(code.charAt(1))) {
+            return 0;
+        }
+        for (int i = 2; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c == '"') {
+                return i + 1;
+            }
+            if (isLineTerminator(c)) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+    
+    private static boolean matches(CodeReader code, char[] value) {
+        for (int i = 1; i < value.length; i++) {
+            if (peek(code, i) != value[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static int digits(CodeReader code, int start) {
+        int i = start;
+        while (isDigit(peek(code, i))) {
+            i++;
+        }
+        return i - start;
+    }
+    
+    private static int peek(CodeReader code, int index) {
+        return index < code.length() ? code.charAt(index) : EOF;
+    }
+    
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+    
+    private static boolean isWordChar(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c) || c == '_';
+    }
+    
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+    
+    private static boolean isLineTerminator(int c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+    
+    private static boolean equalsIgnoreCase(int c1, int c2) {
+        return c1 == c2 || (c1 != EOF && c2 != EOF && toLowerCase(c1) == toLowerCase(c2));
+    }
+    
+    private static int toLowerCase(int c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+    
+}
@@ -0,0 +1,118 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.lexer;
+
+import javax.annotation.Nullable;
+
+import org.sonar.plugins.plsqlopen.api.PlSqlKeyword;
+
+/**
+ * Hash table of the {@link PlSqlKeyword} values built when the class is loaded. The words are
+ * read directly from the source and compared ignoring the case of the ASCII letters, so an
+ * identifier can be classified without creating any string.
+ */
+public final class PlSqlKeywordTable {
+
+    private static final PlSqlKeyword[] KEYWORDS = PlSqlKeyword.values();
+    private static final String[] UPPER_CASE_VALUES = new String[KEYWORDS.length];
+    private static final char[][] KEYS;
+    private static final PlSqlKeyword[] VALUES;
+    private static final int MASK;
+    private static final int MAX_LENGTH;
+
+    static {
+        int size = Integer.highestOneBit(KEYWORDS.length * 4);
+        KEYS = new char[size][];
+        VALUES = new PlSqlKeyword[size];
+        MASK = size - 1;
+        
+        int maxLength = 0;
+        for (PlSqlKeyword keyword : KEYWORDS) {
+            String value = keyword.getValue().toUpperCase();
+            UPPER_CASE_VALUES[keyword.ordinal()] = value;
+            maxLength = Math.max(maxLength, value.length());
+            
+            char[] key = value.toCharArray();
+            int slot = hash(value, key.length) & MASK;
+            while (KEYS[slot] != null) {
+                slot = (slot + 1) & MASK;
+            }
+            KEYS[slot] = key;
+            VALUES[slot] = keyword;
+        }
+        MAX_LENGTH = maxLength;
+    }
+    
+    private PlSqlKeywordTable() {
+    }
+    
+    /**
+     * Returns the keyword formed by the first {@code length} characters of the text, or null if
+     * they aren't a keyword. Only the ASCII letters are compared ignoring the case.
+     */
+    @Nullable
+    public static PlSqlKeyword lookup(CharSequence text, int length) {
+        if (length > MAX_LENGTH) {
+            return null;
+        }
+        
+        int slot = hash(text, length) & MASK;
+        char[] key;
+        while ((key = KEYS[slot]) != null) {
+            if (matches(key, text, length)) {
+                return VALUES[slot];
+            }
+            slot = (slot + 1) & MASK;
+        }
+        return null;
+    }
+    
+    /**
+     * Returns the upper case value of the keyword, as used by the tokens.
+     */
+    public static String upperCaseValue(PlSqlKeyword keyword) {
+        return UPPER_CASE_VALUES[keyword.ordinal()];
+    }
+    
+    private static boolean matches(char[] key, CharSequence text, int length) {
+        if (key.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key[i] != toUpperCase(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static int hash(CharSequence text, int length) {
+        int hash = length;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + toUpperCase(text.charAt(i));
+        }
+        return hash ^ (hash >>> 16);
+    }
+    
+    private static char toUpperCase(char c) {
+        return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+    }
+    
+}
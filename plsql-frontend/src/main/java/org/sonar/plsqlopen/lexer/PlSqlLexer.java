@@ -20,52 +20,58 @@
 package org.sonar.plsqlopen.lexer;
 
 import static com.sonar.sslr.impl.channel.RegexpChannelBuilder.and;
-import static com.sonar.sslr.impl.channel.RegexpChannelBuilder.commentRegexp;
 import static com.sonar.sslr.impl.channel.RegexpChannelBuilder.o2n;
 import static com.sonar.sslr.impl.channel.RegexpChannelBuilder.or;
-import static com.sonar.sslr.impl.channel.RegexpChannelBuilder.regexp;
 import static com.sonar.sslr.impl.channel.RegexpChannelBuilder.g;
 
 import org.sonar.plsqlopen.squid.PlSqlConfiguration;
-import org.sonar.plugins.plsqlopen.api.PlSqlKeyword;
-import org.sonar.plugins.plsqlopen.api.PlSqlPunctuator;
-import org.sonar.plugins.plsqlopen.api.PlSqlTokenType;
 
 import com.sonar.sslr.impl.Lexer;
-import com.sonar.sslr.impl.channel.BlackHoleChannel;
-import com.sonar.sslr.impl.channel.IdentifierAndKeywordChannel;
-import com.sonar.sslr.impl.channel.PunctuatorChannel;
-import com.sonar.sslr.impl.channel.UnknownCharacterChannel;
 
+/**
+ * Creates the lexer of PL/SQL, which reads the tokens with a {@link PlSqlChannel}.
+ * <p>
+ * The regular expressions below were used by the channels of the previous lexer. They are deprecated and no longer
+ * used by the lexer; they are kept for the code that builds on them.
+ */
 public class PlSqlLexer {
+    @Deprecated
     public static final String INLINE_COMMENT = "--[^\\n\\r]*+";
+    @Deprecated
     public static final String MULTILINE_COMMENT = "/\\*[\\s\\S]*?\\*\\/";
+    @Deprecated
     public static final String COMMENT = "(?:" + INLINE_COMMENT + "|" + MULTILINE_COMMENT + ")";
     
+    @Deprecated
     public static final String INTEGER_LITERAL = "(?:\\d++)";
     
-    // TODO: improve this regex
+    @Deprecated
     public static final String REAL_LITERAL = "(?:"
             + "("
             + "\\d*+(?!\\.\\.)\\.\\d++"
             + "|\\d++(?!\\.\\.)\\.\\d*+)"
             + ")";
     
+    @Deprecated
     public static final String SCIENTIFIC_LITERAL = "(?:"
             + "\\d++(\\.\\d*+)?[Ee](\\+|-)?\\d++"
             + ")";
     
     private static final String CUSTOM_DELIMITER_START = "[^\\s]"; // any except spacing
     private static final String CUSTOM_DELIMITER_END = "(\\3|}|]|>|\\)"; // same as the start, }, ], > or )
+    @Deprecated
     public static final String STRING_LITERAL = "(?is)(?:"
             + or("'([^']|'')*+'", // simple text literal
                  "n?q'" + g(CUSTOM_DELIMITER_START) +  ".*" + CUSTOM_DELIMITER_END + ")'") // text with user-defined delimiter
             + ")";
     
+    @Deprecated
     public static final String DATE_LITERAL = "(?i)(?:DATE '\\d{4}-\\d{2}-\\d{2}')";
     
+    @Deprecated
     public static final String SIMPLE_IDENTIFIER = and("[\\w\\p{L}]", o2n("[\\w\\p{L}#$]"));
     
+    @Deprecated
     public static final String QUOTED_IDENTIFIER = "\".+?\"";
     
     private PlSqlLexer() {
@@ -77,16 +83,7 @@ public class PlSqlLexer {
                 .builder()
                 .withCharset(conf.getCharset())
                 .withFailIfNoChannelToConsumeOneCharacter(true)
-                .withChannel(new BlackHoleChannel("\\s"))
-                .withChannel(commentRegexp(COMMENT))
-                .withChannel(regexp(PlSqlTokenType.SCIENTIFIC_LITERAL, SCIENTIFIC_LITERAL))
-                .withChannel(regexp(PlSqlTokenType.REAL_LITERAL, REAL_LITERAL))
-                .withChannel(regexp(PlSqlTokenType.INTEGER_LITERAL, INTEGER_LITERAL))
-                .withChannel(regexp(PlSqlTokenType.STRING_LITERAL, STRING_LITERAL))
-                .withChannel(regexp(PlSqlTokenType.DATE_LITERAL, DATE_LITERAL))
-                .withChannel(new IdentifierAndKeywordChannel(or(SIMPLE_IDENTIFIER, QUOTED_IDENTIFIER), false, PlSqlKeyword.values()))
-                .withChannel(new PunctuatorChannel(PlSqlPunctuator.values()))
-                .withChannel(new UnknownCharacterChannel())
+                .withChannel(new PlSqlChannel())
                 .build();
     }
 }
@@ -0,0 +1,82 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.matchers;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import com.sonar.sslr.api.AstNode;
+
+/**
+ * The result of a successful {@link MethodMatcher#match(AstNode)}. It is immutable, so matchers can be shared
+ * between checks and threads.
+ */
+public final class MethodMatch {
+
+    private final MethodMatcher matcher;
+    private final String schema;
+    private final String packageName;
+    private final String methodName;
+    private final List<AstNode> arguments;
+
+    MethodMatch(MethodMatcher matcher, @Nullable String schema, @Nullable String packageName, String methodName,
+            List<AstNode> arguments) {
+        this.matcher = matcher;
+        this.schema = schema;
+        this.packageName = packageName;
+        this.methodName = methodName;
+        this.arguments = Collections.unmodifiableList(arguments);
+    }
+    
+    public MethodMatcher getMatcher() {
+        return matcher;
+    }
+    
+    /**
+     * Returns the schema name as written in the call, or null if the matcher doesn't check the schema or the
+     * optional schema was omitted.
+     */
+    @Nullable
+    public String getSchema() {
+        return schema;
+    }
+    
+    /**
+     * Returns the package name as written in the call, or null if the matcher doesn't check the package.
+     */
+    @Nullable
+    public String getPackageName() {
+        return packageName;
+    }
+    
+    /**
+     * Returns the method name as written in the call.
+     */
+    public String getMethodName() {
+        return methodName;
+    }
+    
+    public List<AstNode> getArguments() {
+        return arguments;
+    }
+    
+}
@@ -20,39 +20,41 @@
 package org.sonar.plsqlopen.matchers;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
+import javax.annotation.Nullable;
+
 import org.sonar.plugins.plsqlopen.api.PlSqlGrammar;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Lists;
 import com.sonar.sslr.api.AstNode;
 
+/**
+ * Checks if a method call matches the configured criteria. Once configured, a matcher keeps no state about the
+ * nodes it checks, so it can be shared between threads.
+ */
 public class MethodMatcher {
 
     private NameCriteria methodNameCriteria;
+    private String exactMethodName;
     private NameCriteria packageNameCriteria;
     private NameCriteria schemaNameCriteria;
     private int parameterCount;
     private boolean shouldCheckParameters = true;
     private boolean schemaIsOptional = false;
-    private String methodName;
 
     private MethodMatcher() {
         // instances should be created using the create method
     }
     
-    public String getMethodName() {
-        return methodName;
-    }
-    
     public static MethodMatcher create() {
         return new MethodMatcher();
     }
     
     public MethodMatcher name(String methodNameCriteria) {
-        return name(NameCriteria.is(methodNameCriteria));
+        name(NameCriteria.is(methodNameCriteria));
+        this.exactMethodName = methodNameCriteria;
+        return this;
     }
     
     public MethodMatcher name(NameCriteria methodNameCriteria) {
@@ -113,37 +115,109 @@ public class MethodMatcher {
         return new ArrayList<>();
     }
 
+    /**
+     * Returns the method name if this matcher only accepts a single name, so it can be indexed by a
+     * {@link MethodMatcherSet}.
+     */
+    @Nullable
+    String getExactMethodName() {
+        return exactMethodName;
+    }
+
+    /**
+     * Returns the names and the arguments of the method call, or null if the node doesn't match.
+     */
+    @Nullable
+    public MethodMatch match(AstNode originalNode) {
+        if (!matches(originalNode)) {
+            return null;
+        }
+        
+        List<AstNode> nodes = normalize(originalNode).getChildren();
+        int index = previousNamePart(nodes, nodes.size() - 1);
+        String methodName = nodes.get(index).getTokenOriginalValue();
+        String packageName = null;
+        String schema = null;
+        
+        index = previousNamePart(nodes, index - 1);
+        if (packageNameCriteria != null) {
+            packageName = nodes.get(index).getTokenOriginalValue();
+            index = previousNamePart(nodes, index - 1);
+        }
+        if (schemaNameCriteria != null && index >= 0) {
+            schema = nodes.get(index).getTokenOriginalValue();
+        }
+        return new MethodMatch(this, schema, packageName, methodName, getArguments(originalNode));
+    }
+
     public boolean matches(AstNode originalNode) {
-        AstNode node = normalize(originalNode);
-        LinkedList<AstNode> nodes = Lists.newLinkedList(node.getChildren(PlSqlGrammar.VARIABLE_NAME, PlSqlGrammar.IDENTIFIER_NAME));
+        List<AstNode> nodes = normalize(originalNode).getChildren();
         
-        if (nodes.isEmpty()) {
+        // the name parts are visited from the method name back to the schema, without copying the children
+        int index = previousNamePart(nodes, nodes.size() - 1);
+        if (index < 0) {
             return false;
         }
         
         boolean matches = true;
         
-        matches &= nameAcceptable(nodes.removeLast(), methodNameCriteria);
+        matches &= nameAcceptable(nodes.get(index), methodNameCriteria);
+        index = previousNamePart(nodes, index - 1);
         
         if (packageNameCriteria != null) {
-            matches &= !nodes.isEmpty() && nameAcceptable(nodes.removeLast(), packageNameCriteria);
+            matches &= index >= 0 && nameAcceptable(nodes.get(index), packageNameCriteria);
+            index = previousNamePart(nodes, index - 1);
         }
         
         if (schemaNameCriteria != null) {
-            matches &= (schemaIsOptional && nodes.isEmpty()) || 
-                    (!nodes.isEmpty() && nameAcceptable(nodes.removeLast(), schemaNameCriteria));
+            if (index < 0) {
+                matches &= schemaIsOptional;
+            } else {
+                matches &= nameAcceptable(nodes.get(index), schemaNameCriteria);
+                index = previousNamePart(nodes, index - 1);
+            }
         }
         
-        return matches && nodes.isEmpty() && argumentsAcceptable(originalNode);
+        return matches && index < 0 && argumentsAcceptable(originalNode);
+    }
+    
+    /**
+     * Returns the node with the name of the method called by the node, without checking any criteria.
+     */
+    @Nullable
+    static AstNode methodNameNode(AstNode originalNode) {
+        List<AstNode> nodes = normalize(originalNode).getChildren();
+        int index = previousNamePart(nodes, nodes.size() - 1);
+        return index >= 0 ? nodes.get(index) : null;
+    }
+    
+    private static int previousNamePart(List<AstNode> nodes, int from) {
+        int index = from;
+        while (index >= 0 && !nodes.get(index).is(PlSqlGrammar.VARIABLE_NAME, PlSqlGrammar.IDENTIFIER_NAME)) {
+            index--;
+        }
+        return index;
     }
 
-    private boolean nameAcceptable(AstNode node, NameCriteria criteria) {
-        methodName = node.getTokenOriginalValue();
-        return criteria.matches(methodName);
+    private static boolean nameAcceptable(AstNode node, NameCriteria criteria) {
+        return criteria.matches(node.getTokenOriginalValue());
     }
 
     private boolean argumentsAcceptable(AstNode node) {
-        return !shouldCheckParameters || getArguments(node).size() == parameterCount;
+        return !shouldCheckParameters || argumentCount(node) == parameterCount;
+    }
+    
+    private static int argumentCount(AstNode node) {
+        AstNode arguments = node.getFirstChild(PlSqlGrammar.ARGUMENTS);
+        int count = 0;
+        if (arguments != null) {
+            for (AstNode child : arguments.getChildren()) {
+                if (child.is(PlSqlGrammar.ARGUMENT)) {
+                    count++;
+                }
+            }
+        }
+        return count;
     }
     
     private static AstNode normalize(AstNode node) {
@@ -0,0 +1,120 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.matchers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.annotation.Nullable;
+
+import com.sonar.sslr.api.AstNode;
+
+/**
+ * Finds which of many {@link MethodMatcher}s accepts a method call. The matchers with an exact method name are
+ * indexed by that name, so only the few matchers registered for the called name are tried. Matchers using other
+ * name criteria are tried for every call.
+ */
+public final class MethodMatcherSet {
+
+    // case-insensitive like NameCriteria.is, without creating an upper-cased copy of each called name
+    private final Map<String, List<Entry>> matchersByName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final List<Entry> otherMatchers = new ArrayList<>();
+
+    private MethodMatcherSet(Collection<MethodMatcher> matchers) {
+        int order = 0;
+        for (MethodMatcher matcher : matchers) {
+            Entry entry = new Entry(matcher, order++);
+            String name = matcher.getExactMethodName();
+            if (name != null) {
+                matchersByName.computeIfAbsent(name, key -> new ArrayList<>()).add(entry);
+            } else {
+                otherMatchers.add(entry);
+            }
+        }
+    }
+    
+    public static MethodMatcherSet of(MethodMatcher... matchers) {
+        return of(Arrays.asList(matchers));
+    }
+    
+    public static MethodMatcherSet of(Collection<MethodMatcher> matchers) {
+        return new MethodMatcherSet(matchers);
+    }
+    
+    public boolean matches(AstNode node) {
+        return findMatcher(node) != null;
+    }
+    
+    /**
+     * Returns the match of the first matcher, in the order they were given, which accepts the node.
+     */
+    @Nullable
+    public MethodMatch match(AstNode node) {
+        MethodMatcher matcher = findMatcher(node);
+        return matcher != null ? matcher.match(node) : null;
+    }
+    
+    @Nullable
+    private MethodMatcher findMatcher(AstNode node) {
+        AstNode nameNode = MethodMatcher.methodNameNode(node);
+        if (nameNode == null) {
+            return null;
+        }
+        
+        Entry match = null;
+        List<Entry> candidates = matchersByName.get(nameNode.getTokenOriginalValue());
+        if (candidates != null) {
+            match = firstMatch(candidates, node, Integer.MAX_VALUE);
+        }
+        Entry otherMatch = firstMatch(otherMatchers, node, match != null ? match.order : Integer.MAX_VALUE);
+        if (otherMatch != null) {
+            match = otherMatch;
+        }
+        return match != null ? match.matcher : null;
+    }
+    
+    @Nullable
+    private static Entry firstMatch(List<Entry> entries, AstNode node, int before) {
+        for (Entry entry : entries) {
+            if (entry.order >= before) {
+                break;
+            }
+            if (entry.matcher.matches(node)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+    
+    private static class Entry {
+        private final MethodMatcher matcher;
+        private final int order;
+        
+        Entry(MethodMatcher matcher, int order) {
+            this.matcher = matcher;
+            this.order = order;
+        }
+    }
+    
+}
@@ -19,11 +19,27 @@
  */
 package org.sonar.plsqlopen.metadata;
 
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
 public class FormsMetadata {
 
-    private String[] alerts = new String[0];
-    private Block[] blocks = new Block[0];
-    private String[] lovs = new String[0];
+    private String[] alerts;
+    private Block[] blocks;
+    private String[] lovs;
+    private Index index;
+
+    public FormsMetadata() {
+        this(new String[0], new Block[0], new String[0]);
+    }
+    
+    public FormsMetadata(String[] alerts, Block[] blocks, String[] lovs) {
+        this.alerts = alerts;
+        this.blocks = blocks;
+        this.lovs = lovs;
+        this.index = new Index(this);
+    }
 
     public String[] getAlerts() {
         return alerts;
@@ -31,6 +47,7 @@ public class FormsMetadata {
 
     public void setAlerts(String[] alerts) {
         this.alerts = alerts;
+        this.index = new Index(this);
     }
     
     public Block[] getBlocks() {
@@ -39,6 +56,7 @@ public class FormsMetadata {
 
     public void setBlocks(Block[] blocks) {
         this.blocks = blocks;
+        this.index = new Index(this);
     }
     
     public String[] getLovs() {
@@ -47,6 +65,57 @@ public class FormsMetadata {
 
     public void setLovs(String[] lovs) {
         this.lovs = lovs;
+        this.index = new Index(this);
+    }
+    
+    public boolean hasAlert(String name) {
+        return index.alerts.contains(normalize(name));
+    }
+    
+    public boolean hasBlock(String name) {
+        return index.blocks.contains(normalize(name));
+    }
+    
+    /**
+     * Checks if an item exists, by its fully qualified name ("block.item").
+     */
+    public boolean hasItem(String fullName) {
+        return index.items.contains(normalize(fullName));
+    }
+    
+    public boolean hasLov(String name) {
+        return index.lovs.contains(normalize(name));
+    }
+    
+    private static String normalize(String name) {
+        return name.toUpperCase(Locale.ENGLISH);
+    }
+    
+    private static Set<String> normalize(String[] names) {
+        Set<String> set = new HashSet<>();
+        for (String name : names) {
+            set.add(normalize(name));
+        }
+        return set;
+    }
+    
+    private static class Index {
+        private final Set<String> alerts;
+        private final Set<String> blocks = new HashSet<>();
+        private final Set<String> items = new HashSet<>();
+        private final Set<String> lovs;
+        
+        Index(FormsMetadata metadata) {
+            alerts = normalize(metadata.alerts);
+            lovs = normalize(metadata.lovs);
+            for (Block block : metadata.blocks) {
+                String blockName = normalize(block.getName());
+                blocks.add(blockName);
+                for (String item : block.getItems()) {
+                    items.add(blockName + "." + normalize(item));
+                }
+            }
+        }
     }
     
 }
@@ -0,0 +1,113 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.metadata;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Reads a {@link FormsMetadata} by streaming the tokens of its JSON document, so neither the document nor an
+ * intermediate tree is kept in memory. Unknown properties are skipped.
+ */
+public final class FormsMetadataReader {
+
+    private FormsMetadataReader() {
+    }
+    
+    public static FormsMetadata read(File file) throws IOException {
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            return read(reader);
+        }
+    }
+    
+    public static FormsMetadata read(Reader reader) throws IOException {
+        JsonReader json = new JsonReader(reader);
+        json.setLenient(true);
+        
+        String[] alerts = new String[0];
+        Block[] blocks = new Block[0];
+        String[] lovs = new String[0];
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            if ("alerts".equals(name)) {
+                alerts = readStrings(json);
+            } else if ("blocks".equals(name)) {
+                blocks = readBlocks(json);
+            } else if ("lovs".equals(name)) {
+                lovs = readStrings(json);
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+        return new FormsMetadata(alerts, blocks, lovs);
+    }
+    
+    private static Block[] readBlocks(JsonReader json) throws IOException {
+        List<Block> blocks = new ArrayList<>();
+        json.beginArray();
+        while (json.hasNext()) {
+            String blockName = null;
+            String[] items = new String[0];
+            json.beginObject();
+            while (json.hasNext()) {
+                String name = json.nextName();
+                if ("name".equals(name)) {
+                    blockName = json.nextString();
+                } else if ("items".equals(name)) {
+                    items = readStrings(json);
+                } else {
+                    json.skipValue();
+                }
+            }
+            json.endObject();
+            if (blockName != null) {
+                blocks.add(new Block(blockName, items));
+            }
+        }
+        json.endArray();
+        return blocks.toArray(new Block[blocks.size()]);
+    }
+    
+    private static String[] readStrings(JsonReader json) throws IOException {
+        if (json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return new String[0];
+        }
+        List<String> values = new ArrayList<>();
+        json.beginArray();
+        while (json.hasNext()) {
+            values.add(json.nextString());
+        }
+        json.endArray();
+        return values.toArray(new String[values.size()]);
+    }
+    
+}
@@ -32,7 +32,18 @@ public final class PlSqlParser {
     }
 
     public static Parser<Grammar> create(PlSqlConfiguration conf) {
-        return Parser.builder(PlSqlGrammar.create().build())
-                .withLexer(PlSqlLexer.create(conf)).build();
+        return Parser.builder(createGrammar()).withLexer(PlSqlLexer.create(conf)).build();
+    }
+    
+    /**
+     * Creates the parser of the analysis, which parses a SQL*Plus script one part at a time (see {@link ScriptParser}).
+     * Unlike the parser of {@link #create(PlSqlConfiguration)}, it can't be copied with {@link Parser#builder(Parser)}.
+     */
+    public static Parser<Grammar> createScriptParser(PlSqlConfiguration conf) {
+        return new ScriptParser(createGrammar(), PlSqlLexer.create(conf));
+    }
+    
+    private static Grammar createGrammar() {
+        return PlSqlGrammar.createWithMemoizationOf(PlSqlGrammar.MEMOIZED_RULES).build();
     }
 }
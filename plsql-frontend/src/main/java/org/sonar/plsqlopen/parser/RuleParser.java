@@ -0,0 +1,89 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.parser;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+import org.sonar.sslr.internal.matchers.LexerfulAstCreator;
+import org.sonar.sslr.internal.vm.CompiledGrammar;
+import org.sonar.sslr.internal.vm.Machine;
+import org.sonar.sslr.internal.vm.MutableGrammarCompiler;
+
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.Grammar;
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.impl.Parser;
+import com.sonar.sslr.impl.matcher.RuleDefinition;
+
+/**
+ * Parses lists of tokens with a rule compiled only once. {@link Parser#parse(List)} compiles the rule again on each
+ * call, which is too slow when a file is parsed in many parts, but the compiled form is internal to SSLR. It is only
+ * used with the version of SSLR it was verified with; any other version parses through the public {@link Parser}.
+ */
+final class RuleParser {
+
+    private static final Logger LOG = Loggers.get(RuleParser.class);
+    
+    static final boolean CAN_COMPILE = canCompile(SslrVersion.current());
+    
+    private final Parser<Grammar> parser;
+    @Nullable
+    private final CompiledRule compiledRule;
+    
+    RuleParser(Grammar grammar, RuleDefinition rule) {
+        this(grammar, rule, CAN_COMPILE);
+    }
+    
+    RuleParser(Grammar grammar, RuleDefinition rule, boolean compile) {
+        this.parser = Parser.builder(grammar).build();
+        this.parser.setRootRule(rule);
+        this.compiledRule = compile ? new CompiledRule(rule) : null;
+    }
+    
+    AstNode parse(List<Token> tokens) {
+        return compiledRule != null ? compiledRule.parse(tokens) : parser.parse(tokens);
+    }
+    
+    static boolean canCompile(@Nullable String sslrVersion) {
+        if (SslrVersion.isVerified(sslrVersion)) {
+            return true;
+        }
+        LOG.debug("SSLR " + sslrVersion + " is not " + SslrVersion.VERIFIED + ", the grammar is compiled for each part of the files");
+        return false;
+    }
+    
+    // kept apart so the internal classes are only loaded when they are used
+    private static class CompiledRule {
+        private final CompiledGrammar compiledGrammar;
+        
+        CompiledRule(RuleDefinition rule) {
+            this.compiledGrammar = MutableGrammarCompiler.compile(rule);
+        }
+        
+        AstNode parse(List<Token> tokens) {
+            return LexerfulAstCreator.create(Machine.parse(tokens, compiledGrammar), tokens);
+        }
+    }
+    
+}
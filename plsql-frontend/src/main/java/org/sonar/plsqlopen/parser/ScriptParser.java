@@ -0,0 +1,154 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.parser;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.sonar.plugins.plsqlopen.api.PlSqlGrammar;
+import org.sonar.plugins.plsqlopen.api.PlSqlPunctuator;
+
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.Grammar;
+import com.sonar.sslr.api.RecognitionException;
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.impl.Lexer;
+import com.sonar.sslr.impl.Parser;
+import com.sonar.sslr.impl.LexerException;
+import com.sonar.sslr.impl.matcher.RuleDefinition;
+
+/**
+ * Parser that splits a SQL*Plus script after each "/" alone on its line and parses the parts
+ * separately, so the memory used by the parser depends on the size of the largest part instead
+ * of the size of the whole file. The parts are joined in a single FILE_INPUT node, their tokens
+ * are the ones of the whole file so lines and columns are not affected.
+ * <p>
+ * The lexer is kept here as {@link Parser} only accepts one through its builder, so a copy made with
+ * {@link Parser#builder(Parser)} has none: this parser is only meant for the scanner.
+ */
+final class ScriptParser extends Parser<Grammar> {
+
+    private final Lexer lexer;
+    private final RuleDefinition fileInput;
+    private final RuleParser fileInputParser;
+    
+    ScriptParser(Grammar grammar, Lexer lexer) {
+        super(grammar);
+        this.lexer = lexer;
+        this.fileInput = (RuleDefinition) grammar.rule(PlSqlGrammar.FILE_INPUT);
+        this.fileInputParser = new RuleParser(grammar, fileInput);
+        setRootRule(fileInput);
+    }
+    
+    @Override
+    public AstNode parse(File file) {
+        try {
+            return parse(lexer.lex(file));
+        } catch (LexerException e) {
+            throw new RecognitionException(e);
+        }
+    }
+    
+    @Override
+    public AstNode parse(String source) {
+        try {
+            return parse(lexer.lex(source));
+        } catch (LexerException e) {
+            throw new RecognitionException(e);
+        }
+    }
+    
+    @Override
+    public AstNode parse(List<Token> tokens) {
+        if (getRootRule() != fileInput) {
+            return super.parse(tokens);
+        }
+        
+        List<Integer> ends = findUnitEnds(tokens);
+        if (ends.size() == 1) {
+            return parseUnits(tokens);
+        }
+        
+        Token eof = tokens.get(tokens.size() - 1);
+        AstNode result = null;
+        int start = 0;
+        for (int end : ends) {
+            List<Token> units = new ArrayList<>(tokens.subList(start, end));
+            if (end < tokens.size()) {
+                units.add(eof);
+            }
+            AstNode node = parseUnits(units);
+            if (result == null) {
+                result = new AstNode(node.getType(), node.getName(), node.getToken());
+                result.setFromIndex(0);
+                result.setToIndex(tokens.size());
+            }
+            for (AstNode child : node.getChildren()) {
+                if (child.getToken() != eof || end == tokens.size()) {
+                    shiftIndexes(child, start);
+                    result.addChild(child);
+                }
+            }
+            start = end;
+        }
+        return result;
+    }
+    
+    private AstNode parseUnits(List<Token> tokens) {
+        return fileInputParser.parse(tokens);
+    }
+    
+    /**
+     * Returns the exclusive end index of each part: after every "/" which is the only token of its line, and
+     * the end of the file for the last part.
+     */
+    static List<Integer> findUnitEnds(List<Token> tokens) {
+        List<Integer> ends = new ArrayList<>();
+        int last = tokens.size() - 1;
+        for (int i = 0; i < last; i++) {
+            Token token = tokens.get(i);
+            if (token.getType() == PlSqlPunctuator.DIVISION
+                    && (i == 0 || tokens.get(i - 1).getLine() < token.getLine())
+                    && tokens.get(i + 1).getLine() > token.getLine()) {
+                ends.add(i + 1);
+            }
+        }
+        if (ends.isEmpty() || ends.get(ends.size() - 1) != last) {
+            ends.add(tokens.size());
+        } else {
+            // nothing but the EOF after the last "/"
+            ends.set(ends.size() - 1, tokens.size());
+        }
+        return ends;
+    }
+    
+    private static void shiftIndexes(AstNode node, int offset) {
+        if (offset == 0) {
+            return;
+        }
+        node.setFromIndex(node.getFromIndex() + offset);
+        node.setToIndex(node.getToIndex() + offset);
+        for (AstNode child : node.getChildren()) {
+            shiftIndexes(child, offset);
+        }
+    }
+    
+}
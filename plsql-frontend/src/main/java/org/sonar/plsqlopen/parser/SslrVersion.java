@@ -0,0 +1,70 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import javax.annotation.Nullable;
+
+import com.sonar.sslr.impl.Parser;
+
+/**
+ * The version of SSLR on the classpath, for the code which relies on its internal classes. These classes may change
+ * in any version, so they are only used with the version they were verified with.
+ */
+public final class SslrVersion {
+
+    public static final String VERIFIED = "1.21";
+    
+    private static final String CURRENT = read();
+    
+    private SslrVersion() {
+    }
+    
+    @Nullable
+    public static String current() {
+        return CURRENT;
+    }
+    
+    public static boolean isVerified() {
+        return isVerified(CURRENT);
+    }
+    
+    static boolean isVerified(@Nullable String version) {
+        return VERIFIED.equals(version);
+    }
+    
+    @Nullable
+    private static String read() {
+        try (InputStream input = Parser.class.getResourceAsStream("/META-INF/maven/org.sonarsource.sslr/sslr-core/pom.properties")) {
+            if (input == null) {
+                return null;
+            }
+            Properties properties = new Properties();
+            properties.load(input);
+            return properties.getProperty("version");
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+}
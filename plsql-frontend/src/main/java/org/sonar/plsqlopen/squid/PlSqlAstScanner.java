@@ -32,7 +32,6 @@ import org.sonar.plugins.plsqlopen.api.PlSqlKeyword;
 import org.sonar.plugins.plsqlopen.api.PlSqlMetric;
 import org.sonar.squidbridge.AstScanner;
 import org.sonar.squidbridge.AstScanner.Builder;
-import org.sonar.squidbridge.ProgressAstScanner;
 import org.sonar.squidbridge.SourceCodeBuilderVisitor;
 import org.sonar.squidbridge.SquidAstVisitor;
 import org.sonar.squidbridge.SquidAstVisitorContextImpl;
@@ -77,16 +76,16 @@ public class PlSqlAstScanner {
     public static AstScanner<Grammar> create(PlSqlConfiguration conf, SonarComponents components, Collection<SquidAstVisitor<Grammar>> visitors) {
         final SquidAstVisitorContextImpl<Grammar> context = 
                 new DefaultPlSqlVisitorContext<>(new SourceProject("PL/SQL Project"), components);
-        final Parser<Grammar> parser = PlSqlParser.create(conf);
+        final Parser<Grammar> parser = PlSqlParser.createScriptParser(conf);
 
-        AstScanner.Builder<Grammar> builder = new ProgressAstScanner.Builder<>(
+        AstScanner.Builder<Grammar> builder = new PlSqlScanner.Builder(
                 context).setBaseParser(parser);
         
         builder.withMetrics(PlSqlMetric.values());
         builder.setFilesMetric(PlSqlMetric.FILES);
         setMethodAnalyser(builder);
         setCommentAnalyser(builder);
-        setMetrics(builder);
+        setMetrics(builder, conf);
 
         /* External visitors (typically Check ones) */
         if (visitors != null) {
@@ -95,7 +94,7 @@ public class PlSqlAstScanner {
                     ((CharsetAwareVisitor) visitor).setCharset(conf.getCharset());
                 }
                 
-                if (!(visitor instanceof FormsMetadataAwareCheck) || components.getFormsMetadata() != null) {
+                if (!(visitor instanceof FormsMetadataAwareCheck) || components.hasFormsMetadata()) {
                     builder.withSquidAstVisitor(visitor);
                 }
             }
@@ -104,12 +103,14 @@ public class PlSqlAstScanner {
         return builder.build();
     }
     
-    private static void setMetrics(Builder<Grammar> builder) {
+    private static void setMetrics(Builder<Grammar> builder, PlSqlConfiguration conf) {
         builder.withSquidAstVisitor(new LinesVisitor<>(PlSqlMetric.LINES));
-        builder.withSquidAstVisitor(new PlSqlLinesOfCodeVisitor(PlSqlMetric.LINES_OF_CODE));
-        builder.withSquidAstVisitor(CommentsVisitor.<Grammar>builder().withCommentMetric(PlSqlMetric.COMMENT_LINES)
-                .withNoSonar(true)
-                .build());
+        if (conf.isLineMetricsEnabled()) {
+            builder.withSquidAstVisitor(new PlSqlLinesOfCodeVisitor(PlSqlMetric.LINES_OF_CODE));
+            builder.withSquidAstVisitor(CommentsVisitor.<Grammar>builder().withCommentMetric(PlSqlMetric.COMMENT_LINES)
+                    .withNoSonar(true)
+                    .build());
+        }
         
         builder.withSquidAstVisitor(CounterVisitor.<Grammar>builder()
                 .setMetricDef(PlSqlMetric.STATEMENTS)
@@ -0,0 +1,158 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.squid;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.sonar.plugins.plsqlopen.api.PlSqlGrammar;
+
+import com.sonar.sslr.api.AstAndTokenVisitor;
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.AstNodeType;
+import com.sonar.sslr.api.AstVisitor;
+import com.sonar.sslr.api.Token;
+
+/**
+ * Walks the AST like {@link com.sonar.sslr.impl.ast.AstWalker}, with the visitors subscribed to each node type
+ * resolved once for the whole set of visitors. Node types are enum constants (grammar rules, keywords,
+ * punctuators and token types), so the visitors are kept in one array per enum, indexed by the ordinal of
+ * the constant. Only the visitors implementing {@link AstAndTokenVisitor} receive the tokens, and the tokens
+ * aren't looked at all when there is none of them. The code skipped by the parser in a {@link PlSqlGrammar#RECOVERY}
+ * node isn't a valid tree, so only the node itself and its tokens are visited.
+ */
+public class PlSqlAstWalker {
+
+    private static final AstVisitor[] NO_VISITORS = new AstVisitor[0];
+    
+    private final AstVisitor[] visitors;
+    private final AstAndTokenVisitor[] tokenVisitors;
+    private final Class<?>[] typeClasses;
+    private final AstVisitor[][][] visitorsByOrdinal;
+    private final Map<AstNodeType, AstVisitor[]> visitorsByOtherType = new IdentityHashMap<>();
+    private Token lastVisitedToken;
+    
+    public PlSqlAstWalker(List<? extends AstVisitor> visitors) {
+        this.visitors = visitors.toArray(new AstVisitor[visitors.size()]);
+        
+        List<AstAndTokenVisitor> astAndTokenVisitors = new ArrayList<>();
+        Map<Class<?>, AstVisitor[][]> tables = new LinkedHashMap<>();
+        Map<AstNodeType, List<AstVisitor>> otherTypes = new IdentityHashMap<>();
+        for (AstVisitor visitor : visitors) {
+            if (visitor instanceof AstAndTokenVisitor) {
+                astAndTokenVisitors.add((AstAndTokenVisitor) visitor);
+            }
+            for (AstNodeType type : visitor.getAstNodeTypesToVisit()) {
+                if (type instanceof Enum) {
+                    Enum<?> constant = (Enum<?>) type;
+                    AstVisitor[][] table = tables.computeIfAbsent(type.getClass(),
+                            key -> new AstVisitor[constant.getDeclaringClass().getEnumConstants().length][]);
+                    table[constant.ordinal()] = append(table[constant.ordinal()], visitor);
+                } else {
+                    otherTypes.computeIfAbsent(type, key -> new ArrayList<>()).add(visitor);
+                }
+            }
+        }
+        
+        this.tokenVisitors = astAndTokenVisitors.toArray(new AstAndTokenVisitor[astAndTokenVisitors.size()]);
+        this.typeClasses = tables.keySet().toArray(new Class<?>[tables.size()]);
+        this.visitorsByOrdinal = tables.values().toArray(new AstVisitor[tables.size()][][]);
+        for (Map.Entry<AstNodeType, List<AstVisitor>> entry : otherTypes.entrySet()) {
+            visitorsByOtherType.put(entry.getKey(), entry.getValue().toArray(new AstVisitor[entry.getValue().size()]));
+        }
+    }
+    
+    public void walkAndVisit(AstNode ast) {
+        for (AstVisitor visitor : visitors) {
+            visitor.visitFile(ast);
+        }
+        visit(ast);
+        for (int i = visitors.length - 1; i >= 0; i--) {
+            visitors[i].leaveFile(ast);
+        }
+    }
+    
+    private void visit(AstNode node) {
+        AstVisitor[] nodeVisitors = visitorsOf(node.getType());
+        for (AstVisitor visitor : nodeVisitors) {
+            visitor.visitNode(node);
+        }
+        if (node.getType() == PlSqlGrammar.RECOVERY) {
+            visitTokens(node);
+        } else {
+            if (tokenVisitors.length > 0) {
+                visitToken(node.getToken());
+            }
+            List<AstNode> children = node.getChildren();
+            for (int i = 0; i < children.size(); i++) {
+                visit(children.get(i));
+            }
+        }
+        for (int i = nodeVisitors.length - 1; i >= 0; i--) {
+            nodeVisitors[i].leaveNode(node);
+        }
+    }
+    
+    private void visitTokens(AstNode node) {
+        if (tokenVisitors.length > 0) {
+            for (Token token : node.getTokens()) {
+                visitToken(token);
+            }
+        }
+    }
+    
+    private void visitToken(Token token) {
+        if (token != null && token != lastVisitedToken) {
+            lastVisitedToken = token;
+            for (AstAndTokenVisitor visitor : tokenVisitors) {
+                visitor.visitToken(token);
+            }
+        }
+    }
+    
+    private AstVisitor[] visitorsOf(AstNodeType type) {
+        Class<?> typeClass = type.getClass();
+        for (int i = 0; i < typeClasses.length; i++) {
+            if (typeClasses[i] == typeClass) {
+                AstVisitor[] result = visitorsByOrdinal[i][((Enum<?>) type).ordinal()];
+                return result == null ? NO_VISITORS : result;
+            }
+        }
+        if (visitorsByOtherType.isEmpty() || type instanceof Enum) {
+            return NO_VISITORS;
+        }
+        AstVisitor[] result = visitorsByOtherType.get(type);
+        return result == null ? NO_VISITORS : result;
+    }
+    
+    private static AstVisitor[] append(AstVisitor[] array, AstVisitor visitor) {
+        if (array == null) {
+            return new AstVisitor[] { visitor };
+        }
+        AstVisitor[] result = new AstVisitor[array.length + 1];
+        System.arraycopy(array, 0, result, 0, array.length);
+        result[array.length] = visitor;
+        return result;
+    }
+    
+}
@@ -25,8 +25,21 @@ import org.sonar.squidbridge.api.SquidConfiguration;
 
 public class PlSqlConfiguration extends SquidConfiguration {
 
+    private boolean lineMetricsEnabled = true;
+    
     public PlSqlConfiguration(Charset charset) {
         super(charset);
     }
+    
+    /**
+     * Whether the lines of code and the comment lines are computed. These are the only metrics visiting every token.
+     */
+    public boolean isLineMetricsEnabled() {
+        return lineMetricsEnabled;
+    }
+    
+    public void setLineMetricsEnabled(boolean lineMetricsEnabled) {
+        this.lineMetricsEnabled = lineMetricsEnabled;
+    }
 
 }
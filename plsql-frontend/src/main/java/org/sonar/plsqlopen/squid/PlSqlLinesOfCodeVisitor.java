@@ -23,6 +23,7 @@ import static com.sonar.sslr.api.GenericTokenType.EOF;
 
 import javax.annotation.Nullable;
 
+import org.sonar.plsqlopen.TokenLocation;
 import org.sonar.squidbridge.SquidAstVisitor;
 import org.sonar.squidbridge.measures.MetricDef;
 
@@ -49,12 +50,12 @@ public class PlSqlLinesOfCodeVisitor extends SquidAstVisitor<Grammar> implements
     public void visitToken(Token token) {
         if (!token.getType().equals(EOF)) {
             /* Handle all the lines of the token */
-            String[] tokenLines = token.getValue().split("\n", -1);
+            int lineBreaks = TokenLocation.lineBreaks(token.getValue());
 
             int firstLineAlreadyCounted = lastTokenLine == token.getLine() ? 1 : 0;
-            getContext().peekSourceCode().add(metric, (double) tokenLines.length - firstLineAlreadyCounted);
+            getContext().peekSourceCode().add(metric, (double) lineBreaks + 1 - firstLineAlreadyCounted);
 
-            lastTokenLine = token.getLine() + tokenLines.length - 1;
+            lastTokenLine = token.getLine() + lineBreaks;
         }
     }
 
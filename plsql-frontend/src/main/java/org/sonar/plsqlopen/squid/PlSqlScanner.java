@@ -0,0 +1,223 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.squid;
+
+import java.io.File;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+import org.sonar.plsqlopen.DefaultPlSqlVisitorContext;
+import org.sonar.squidbridge.AstScanner;
+import org.sonar.squidbridge.AstScannerExceptionHandler;
+import org.sonar.squidbridge.ProgressReport;
+import org.sonar.squidbridge.SquidAstVisitor;
+import org.sonar.squidbridge.SquidAstVisitorContextImpl;
+import org.sonar.squidbridge.api.AnalysisException;
+import org.sonar.squidbridge.api.SourceProject;
+import org.sonar.squidbridge.measures.MetricDef;
+
+import com.google.common.base.Throwables;
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.Grammar;
+import com.sonar.sslr.api.RecognitionException;
+import com.sonar.sslr.impl.Parser;
+
+/**
+ * {@link AstScanner} which reports its progress like {@link org.sonar.squidbridge.ProgressAstScanner} and walks
+ * the AST of each file with a {@link PlSqlAstWalker}.
+ */
+public class PlSqlScanner extends AstScanner<Grammar> {
+
+    private static final Logger LOG = Loggers.get(PlSqlScanner.class);
+    
+    private final List<SquidAstVisitor<Grammar>> visitors;
+    private final Parser<Grammar> parser;
+    private final SquidAstVisitorContextImpl<Grammar> context;
+    private final MetricDef filesMetric;
+    private final ProgressReport progressReport;
+    
+    protected PlSqlScanner(Builder builder) {
+        super(builder);
+        this.visitors = new ArrayList<>(builder.visitors);
+        this.parser = builder.parser;
+        this.context = builder.context;
+        this.filesMetric = builder.filesMetric;
+        this.progressReport = builder.progressReport;
+    }
+    
+    @Override
+    public void scanFiles(Collection<File> files) {
+        progressReport.start(files);
+        boolean success = false;
+        try {
+            scan(files);
+            success = true;
+        } finally {
+            if (success) {
+                progressReport.stop();
+            } else {
+                progressReport.cancel();
+            }
+        }
+    }
+    
+    private void scan(Collection<File> files) {
+        for (SquidAstVisitor<Grammar> visitor : visitors) {
+            visitor.init();
+        }
+        
+        PlSqlAstWalker astWalker = new PlSqlAstWalker(visitors);
+        for (File file : files) {
+            checkCancel();
+            context.setFile(file, filesMetric);
+            
+            Exception parseException = null;
+            AstNode ast = null;
+            try {
+                // the only read of the file: the lines of code, the comments and the issue locations all come from
+                // these tokens, the cache only compares its size and modification time
+                ast = parser.parse(file);
+            } catch (RecognitionException e) {
+                checkInterrupted(e);
+                parseException = e;
+                LOG.error("Unable to parse file: " + file.getAbsolutePath());
+                LOG.error(e.getMessage());
+            } catch (Exception e) {
+                checkInterrupted(e);
+                parseException = e;
+                LOG.error("Unable to parse file: " + file.getAbsolutePath(), e);
+            } catch (Throwable e) {
+                throw new AnalysisException("Unable to parse file: " + file.getAbsolutePath(), e);
+            }
+            
+            try {
+                if (parseException == null) {
+                    astWalker.walkAndVisit(ast);
+                } else {
+                    visitWithParseException(parseException);
+                }
+                flushIssues();
+                popTillSourceProject();
+            } catch (Throwable e) {
+                throw new AnalysisException("Unable to analyze file: " + file.getAbsolutePath(), e);
+            }
+        }
+        
+        for (SquidAstVisitor<Grammar> visitor : visitors) {
+            visitor.destroy();
+        }
+        decorateSquidTree();
+    }
+    
+    private void flushIssues() {
+        if (context instanceof DefaultPlSqlVisitorContext) {
+            ((DefaultPlSqlVisitorContext<?>) context).flushIssues();
+        }
+    }
+    
+    private void visitWithParseException(Exception parseException) {
+        for (SquidAstVisitor<Grammar> visitor : visitors) {
+            visitor.visitFile(null);
+        }
+        for (SquidAstVisitor<Grammar> visitor : visitors) {
+            if (visitor instanceof AstScannerExceptionHandler) {
+                if (parseException instanceof RecognitionException) {
+                    ((AstScannerExceptionHandler) visitor).processRecognitionException((RecognitionException) parseException);
+                } else {
+                    ((AstScannerExceptionHandler) visitor).processException(parseException);
+                }
+            }
+        }
+        for (SquidAstVisitor<Grammar> visitor : visitors) {
+            visitor.leaveFile(null);
+        }
+    }
+    
+    private void popTillSourceProject() {
+        while (!(context.peekSourceCode() instanceof SourceProject)) {
+            context.popSourceCode();
+        }
+    }
+    
+    private static void checkInterrupted(Exception e) {
+        Throwable cause = Throwables.getRootCause(e);
+        if (cause instanceof InterruptedException || cause instanceof InterruptedIOException) {
+            throw new AnalysisException("Analysis cancelled", e);
+        }
+    }
+    
+    private static void checkCancel() {
+        if (Thread.interrupted()) {
+            throw new AnalysisException("Analysis cancelled");
+        }
+    }
+    
+    public static class Builder extends AstScanner.Builder<Grammar> {
+        
+        private final SquidAstVisitorContextImpl<Grammar> context;
+        private final List<SquidAstVisitor<Grammar>> visitors = new ArrayList<>();
+        private final ProgressReport progressReport = new ProgressReport("Report about progress of code analyzer", 10_000);
+        private Parser<Grammar> parser;
+        private MetricDef filesMetric;
+        
+        public Builder(SquidAstVisitorContextImpl<Grammar> context) {
+            super(context);
+            this.context = context;
+        }
+        
+        @Override
+        public Builder setBaseParser(Parser<Grammar> baseParser) {
+            super.setBaseParser(baseParser);
+            this.parser = baseParser;
+            return this;
+        }
+        
+        @Override
+        public Builder withSquidAstVisitor(SquidAstVisitor<Grammar> visitor) {
+            super.withSquidAstVisitor(visitor);
+            visitors.add(visitor);
+            return this;
+        }
+        
+        @Override
+        public Builder setFilesMetric(MetricDef filesMetric) {
+            super.setFilesMetric(filesMetric);
+            this.filesMetric = filesMetric;
+            return this;
+        }
+        
+        @Override
+        public AstScanner<Grammar> build() {
+            withSquidAstVisitor(new SquidAstVisitor<Grammar>() {
+                @Override
+                public void leaveFile(AstNode astNode) {
+                    progressReport.nextFile();
+                }
+            });
+            return new PlSqlScanner(this);
+        }
+        
+    }
+    
+}
@@ -19,9 +19,16 @@
  */
 package org.sonar.plsqlopen.symbols;
 
+import java.util.EnumSet;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
 import org.sonar.api.batch.sensor.symbol.NewSymbol;
 import org.sonar.api.batch.sensor.symbol.NewSymbolTable;
 import org.sonar.plsqlopen.TokenLocation;
+import org.sonar.plsqlopen.cache.AnalysisCache;
+import org.sonar.plsqlopen.cache.CachedResults;
 import org.sonar.plsqlopen.checks.PlSqlCheck;
 import org.sonar.plugins.plsqlopen.api.PlSqlGrammar;
 import org.sonar.plugins.plsqlopen.api.PlSqlKeyword;
@@ -35,7 +42,7 @@ import com.sonar.sslr.api.AstNodeType;
 
 public class SymbolVisitor extends PlSqlCheck {
 
-    private static final AstNodeType[] scopeHolders = { 
+    private static final Set<PlSqlGrammar> scopeHolders = EnumSet.of(
             PlSqlGrammar.CREATE_PROCEDURE,
             PlSqlGrammar.PROCEDURE_DECLARATION,
             PlSqlGrammar.CREATE_FUNCTION,
@@ -45,15 +52,24 @@ public class SymbolVisitor extends PlSqlCheck {
             PlSqlGrammar.CREATE_TRIGGER,
             PlSqlGrammar.BLOCK_STATEMENT,
             PlSqlGrammar.FOR_STATEMENT,
-            PlSqlGrammar.CURSOR_DECLARATION};
+            PlSqlGrammar.CURSOR_DECLARATION);
     
+    private final AnalysisCache cache;
     private SymbolTableImpl symbolTable;
     private Scope currentScope;
     private NewSymbolTable symbolizable;
     
+    public SymbolVisitor() {
+        this(null);
+    }
+    
+    public SymbolVisitor(@Nullable AnalysisCache cache) {
+        this.cache = cache;
+    }
+    
     @Override
     public void init() {
-        subscribeTo(scopeHolders);
+        subscribeTo(scopeHolders.toArray(new AstNodeType[scopeHolders.size()]));
     }
     
     @Override
@@ -71,34 +87,36 @@ public class SymbolVisitor extends PlSqlCheck {
     
     @Override
     public void visitNode(AstNode astNode) {
-        if (astNode.is(scopeHolders)) {
-            getPlSqlContext().setCurrentScope(symbolTable.getScopeFor(astNode));
-        }
+        getPlSqlContext().setCurrentScope(symbolTable.getScopeFor(astNode));
     }
     
     @Override
     public void leaveNode(AstNode astNode) {
-        if (astNode.is(scopeHolders)) {
-            getPlSqlContext().setCurrentScope(getPlSqlContext().getCurrentScope().outer());
-        }
+        getPlSqlContext().setCurrentScope(getPlSqlContext().getCurrentScope().outer());
     }
     
     @Override
     public void leaveFile(AstNode node) {
         if (symbolizable != null) {
+            CachedResults results = cache != null ? cache.record(getContext().getFile()) : null;
             for (Symbol symbol : symbolTable.getSymbols()) {
                 AstNode symbolNode = symbol.declaration();
                 
                 TokenLocation symbolLocation = TokenLocation.from(symbolNode.getToken());
                 NewSymbol newSymbol = symbolizable.newSymbol(symbolLocation.line(), symbolLocation.column(), 
                         symbolLocation.endLine(), symbolLocation.endColumn());
+                CachedResults.Symbol cachedSymbol = results != null ? results.addSymbol(symbolLocation.line(),
+                        symbolLocation.column(), symbolLocation.endLine(), symbolLocation.endColumn()) : null;
                 
                 for (AstNode usage : symbol.usages()) {
                     TokenLocation usageLocation = TokenLocation.from(usage.getToken());
                     newSymbol.newReference(usageLocation.line(), usageLocation.column(), usageLocation.endLine(), usageLocation.endColumn());
+                    if (cachedSymbol != null) {
+                        cachedSymbol.addReference(usageLocation.line(), usageLocation.column(), usageLocation.endLine(), usageLocation.endColumn());
+                    }
                 }
             }
-            symbolizable.save();
+            getPlSqlContext().saveSymbolizable(symbolizable);
         }
         
         symbolTable = null;
@@ -110,7 +128,7 @@ public class SymbolVisitor extends PlSqlCheck {
         visitNodeInternal(ast);
         visitChildren(ast);
         
-        if (ast.is(scopeHolders)) {
+        if (scopeHolders.contains(ast.getType())) {
             leaveScope();
         }
     }
@@ -122,25 +140,43 @@ public class SymbolVisitor extends PlSqlCheck {
     }
 
     private void visitNodeInternal(AstNode node) {
+        if (!(node.getType() instanceof PlSqlGrammar)) {
+            return;
+        }
         
-        if (node.is(PlSqlGrammar.CREATE_PROCEDURE, PlSqlGrammar.PROCEDURE_DECLARATION,
-                PlSqlGrammar.CREATE_FUNCTION, PlSqlGrammar.FUNCTION_DECLARATION,
-                PlSqlGrammar.CREATE_TRIGGER)) {
+        switch ((PlSqlGrammar) node.getType()) {
+        case CREATE_PROCEDURE:
+        case PROCEDURE_DECLARATION:
+        case CREATE_FUNCTION:
+        case FUNCTION_DECLARATION:
+        case CREATE_TRIGGER:
             visitUnit(node);
-        } else if (node.is(PlSqlGrammar.CREATE_PACKAGE, PlSqlGrammar.CREATE_PACKAGE_BODY)) {
+            break;
+        case CREATE_PACKAGE:
+        case CREATE_PACKAGE_BODY:
             visitPackage(node);
-        } else if (node.is(PlSqlGrammar.CURSOR_DECLARATION)) {
+            break;
+        case CURSOR_DECLARATION:
             visitCursor(node);
-        } else if (node.is(PlSqlGrammar.BLOCK_STATEMENT)) {
+            break;
+        case BLOCK_STATEMENT:
             visitBlock(node);
-        } else if (node.is(PlSqlGrammar.FOR_STATEMENT)) {
+            break;
+        case FOR_STATEMENT:
             visitFor(node);
-        } else if (node.is(PlSqlGrammar.VARIABLE_DECLARATION)) {
+            break;
+        case VARIABLE_DECLARATION:
             visitVariableDeclaration(node);
-        } else if (node.is(PlSqlGrammar.PARAMETER_DECLARATION, PlSqlGrammar.CURSOR_PARAMETER_DECLARATION)) {
+            break;
+        case PARAMETER_DECLARATION:
+        case CURSOR_PARAMETER_DECLARATION:
             visitParameterDeclaration(node);
-        } else if (node.is(PlSqlGrammar.VARIABLE_NAME)) {
+            break;
+        case VARIABLE_NAME:
             visitVariableName(node);
+            break;
+        default:
+            break;
         }
     }
     
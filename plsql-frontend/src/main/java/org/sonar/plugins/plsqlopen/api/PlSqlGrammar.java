@@ -30,11 +30,18 @@ import static org.sonar.plugins.plsqlopen.api.PlSqlPunctuator.*;
 import static org.sonar.plugins.plsqlopen.api.PlSqlTokenType.*;
 import static org.sonar.plugins.plsqlopen.api.SqlPlusGrammar.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.sonar.sslr.grammar.GrammarRuleKey;
 import org.sonar.sslr.grammar.LexerfulGrammarBuilder;
 
+import com.sonar.sslr.api.Grammar;
+import com.sonar.sslr.impl.matcher.RuleDefinition;
+
 public enum PlSqlGrammar implements GrammarRuleKey {
     
     // Data types
@@ -181,9 +188,44 @@ public enum PlSqlGrammar implements GrammarRuleKey {
     CREATE_TRIGGER,
     
     // Top-level components
+    RECOVERY,
     FILE_INPUT;
+    
+    /**
+     * Rules whose matches are memoized by the {@link org.sonar.plsqlopen.parser.PlSqlParser}, through
+     * {@link #createWithMemoizationOf(Collection)}. SSLR keeps a single memo per token, so memoizing every rule makes
+     * nested rules that start at the same token overwrite each other's memo while keeping a node alive for each token.
+     * Only the rules that are frequently evaluated again at the same position are listed here; use the
+     * MemoizationProfiler of the toolkit to review this list after grammar changes.
+     */
+    public static final List<GrammarRuleKey> MEMOIZED_RULES = Collections.unmodifiableList(Arrays.<GrammarRuleKey>asList(
+            MEMBER_EXPRESSION,
+            OBJECT_REFERENCE,
+            CONCATENATION_EXPRESSION,
+            EXPRESSION));
 
+    /**
+     * Creates the grammar with the memoization of the matches of all rules.
+     */
     public static LexerfulGrammarBuilder create() {
+        LexerfulGrammarBuilder b = createRules();
+        b.buildWithMemoizationOfMatchesForAllRules();
+        return b;
+    }
+    
+    /**
+     * Creates the grammar with the memoization of the matches of the given rules only, such as {@link #MEMOIZED_RULES}.
+     */
+    public static LexerfulGrammarBuilder createWithMemoizationOf(Collection<? extends GrammarRuleKey> memoizedRules) {
+        LexerfulGrammarBuilder b = createRules();
+        Grammar grammar = b.build();
+        for (GrammarRuleKey rule : memoizedRules) {
+            ((RuleDefinition) grammar.rule(rule)).enableMemoization();
+        }
+        return b;
+    }
+    
+    private static LexerfulGrammarBuilder createRules() {
         LexerfulGrammarBuilder b = LexerfulGrammarBuilder.create();
 
         List<PlSqlKeyword> keywords = PlSqlKeyword.getNonReservedKeywords();
@@ -191,14 +233,8 @@ public enum PlSqlGrammar implements GrammarRuleKey {
         b.rule(NON_RESERVED_KEYWORD).is(b.firstOf(keywords.get(0), keywords.get(1), (Object[]) rest));
         
         b.rule(IDENTIFIER_NAME).is(b.firstOf(IDENTIFIER, NON_RESERVED_KEYWORD));
-        b.rule(FILE_INPUT).is(b.oneOrMore(b.firstOf(
-                COMPILATION_UNIT,
-                DCL_COMMAND,
-                DDL_COMMAND,
-                DML_COMMAND,
-                TCL_COMMAND,
-                SQLPLUS_COMMAND,
-                EXECUTE_PLSQL_BUFFER)), EOF);
+        b.rule(FILE_INPUT).is(b.oneOrMore(b.firstOf(topLevelUnit(b), RECOVERY)), EOF);
+        createRecovery(b);
 
         createLiterals(b);
         createDatatypes(b);
@@ -217,10 +253,57 @@ public enum PlSqlGrammar implements GrammarRuleKey {
         ConditionsGrammar.buildOn(b);
         
         b.setRootRule(FILE_INPUT);
-        b.buildWithMemoizationOfMatchesForAllRules();
         
         return b;
     }
+    
+    public static List<GrammarRuleKey> allRules() {
+        List<GrammarRuleKey> rules = new ArrayList<>();
+        Collections.addAll(rules, PlSqlGrammar.values());
+        Collections.addAll(rules, DdlGrammar.values());
+        Collections.addAll(rules, DmlGrammar.values());
+        Collections.addAll(rules, DclGrammar.values());
+        Collections.addAll(rules, TclGrammar.values());
+        Collections.addAll(rules, SqlPlusGrammar.values());
+        Collections.addAll(rules, SingleRowSqlFunctionsGrammar.values());
+        Collections.addAll(rules, AggregateSqlFunctionsGrammar.values());
+        Collections.addAll(rules, ConditionsGrammar.values());
+        return rules;
+    }
+
+    private static Object topLevelUnit(LexerfulGrammarBuilder b) {
+        return b.firstOf(
+                COMPILATION_UNIT,
+                DCL_COMMAND,
+                DDL_COMMAND,
+                DML_COMMAND,
+                TCL_COMMAND,
+                SQLPLUS_COMMAND,
+                EXECUTE_PLSQL_BUFFER);
+    }
+    
+    private static void createRecovery(LexerfulGrammarBuilder b) {
+        // a PL/SQL block is skipped line by line up to the "/" that ends it in SQL*Plus, any other
+        // command is skipped up to its ";", and consecutive fragments that still can't be parsed are
+        // kept in the same node
+        b.rule(RECOVERY).is(b.oneOrMore(
+                b.nextNot(topLevelUnit(b)),
+                b.firstOf(
+                        b.sequence(
+                                b.next(b.firstOf(
+                                        LABEL,
+                                        DECLARE,
+                                        BEGIN,
+                                        b.sequence(CREATE, b.optional(OR, REPLACE),
+                                                b.optional(b.firstOf(EDITIONABLE, NONEDITIONABLE)),
+                                                b.firstOf(PROCEDURE, FUNCTION, PACKAGE, TRIGGER, TYPE)))),
+                                b.anyToken(), b.tillNewLine(),
+                                b.zeroOrMore(b.nextNot(b.firstOf(DIVISION, CREATE, EOF)), b.anyToken(), b.tillNewLine())),
+                        b.sequence(
+                                b.anyTokenButNot(EOF),
+                                b.zeroOrMore(b.anyTokenButNot(b.firstOf(SEMICOLON, CREATE, EOF))),
+                                b.optional(SEMICOLON)))));
+    }
 
     private static void createLiterals(LexerfulGrammarBuilder b) {
         b.rule(INTERVAL_YEAR_TO_MONTH_LITERAL).is(
@@ -21,10 +21,12 @@ package org.sonar.plugins.plsqlopen.api.symbols;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.Deque;
-import java.util.LinkedList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.annotation.Nullable;
 
@@ -36,7 +38,9 @@ public class Scope {
     private final AstNode node;
     private final boolean autonomousTransaction;
     private final boolean hasExceptionHandler;
-    protected List<Symbol> symbols = new ArrayList<>();
+    private final List<Symbol> symbols = new ArrayList<>();
+    private final Map<String, List<Symbol>> symbolsByName = new HashMap<>();
+    private final Map<Symbol.Kind, List<Symbol>> symbolsByKind = new EnumMap<>(Symbol.Kind.class);
 
     public Scope(Scope outer, AstNode node, boolean autonomousTransaction, boolean hasExceptionHandler) {
         this.outer = outer;
@@ -61,8 +65,11 @@ public class Scope {
         return hasExceptionHandler;
     }
     
+    /**
+     * @return the symbols declared in this scope, which can only be changed through {@link #addSymbol(Symbol)}
+     */
     public List<Symbol> getSymbols() {
-        return symbols;
+        return Collections.unmodifiableList(symbols);
     }
 
     /**
@@ -70,22 +77,16 @@ public class Scope {
      * @return the symbols corresponding to the given kind
      */
     public List<Symbol> getSymbols(Symbol.Kind kind) {
-        List<Symbol> result = new LinkedList<>();
-        for (Symbol symbol : symbols) {
-            if (symbol.is(kind)) {
-                result.add(symbol);
-            }
-        }
-        return result;
+        return Collections.unmodifiableList(symbolsByKind.getOrDefault(kind, Collections.emptyList()));
     }
     
     public Deque<Symbol> getSymbolsAcessibleInScope(String name, Symbol.Kind ... kinds) {
         Deque<Symbol> result = new ArrayDeque<>();
-        List<Symbol.Kind> kindList = Arrays.asList(kinds);
+        String key = Symbol.normalize(name);
         Scope scope = this;
         while (scope != null) {
-            for (Symbol s : scope.getSymbols()) {
-                if (s.called(name) && (kindList.isEmpty() || kindList.contains(s.kind()))) {
+            for (Symbol s : scope.symbolsByName.getOrDefault(key, Collections.emptyList())) {
+                if (isOfKind(s, kinds)) {
                     result.add(s);
                 }
             }
@@ -97,15 +98,21 @@ public class Scope {
 
     public void addSymbol(Symbol symbol) {
         symbols.add(symbol);
+        if (symbol.name() != null) {
+            symbolsByName.computeIfAbsent(Symbol.normalize(symbol.name()), key -> new ArrayList<>(1)).add(symbol);
+        }
+        if (symbol.kind() != null) {
+            symbolsByKind.computeIfAbsent(symbol.kind(), key -> new ArrayList<>()).add(symbol);
+        }
     }
 
     @Nullable
     public Symbol getSymbol(String name, Symbol.Kind ... kinds) {
-        List<Symbol.Kind> kindList = Arrays.asList(kinds);
+        String key = Symbol.normalize(name);
         Scope scope = this;
         while (scope != null) {
-            for (Symbol s : scope.getSymbols()) {
-                if (s.called(name) && (kindList.isEmpty() || kindList.contains(s.kind()))) {
+            for (Symbol s : scope.symbolsByName.getOrDefault(key, Collections.emptyList())) {
+                if (isOfKind(s, kinds)) {
                     return s;
                 }
             }
@@ -114,4 +121,16 @@ public class Scope {
 
         return null;
     }
+    
+    private static boolean isOfKind(Symbol symbol, Symbol.Kind ... kinds) {
+        if (kinds.length == 0) {
+            return true;
+        }
+        for (Symbol.Kind kind : kinds) {
+            if (symbol.is(kind)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -104,6 +104,17 @@ public class Symbol {
     public Kind kind() {
         return kind;
     }
+    
+    /**
+     * Maps the names that are equal according to {@link String#equalsIgnoreCase(String)} to the same key.
+     */
+    static String normalize(String name) {
+        char[] chars = name.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
 
     @Override
     public String toString() {
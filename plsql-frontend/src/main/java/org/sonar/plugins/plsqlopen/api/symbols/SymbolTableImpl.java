@@ -20,8 +20,12 @@
 package org.sonar.plugins.plsqlopen.api.symbols;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.Nullable;
@@ -34,9 +38,13 @@ public class SymbolTableImpl implements SymbolTable {
 
     private List<Symbol> symbols = new ArrayList<>();
     private Set<Scope> scopes = new LinkedHashSet<>();
+    private Map<AstNode, Scope> scopesByNode = new IdentityHashMap<>();
+    private Map<AstNode, Symbol> symbolsByDeclaration = new IdentityHashMap<>();
+    private Map<String, List<Symbol>> symbolsByName = new HashMap<>();
 
     public void addScope(Scope scope){
         scopes.add(scope);
+        scopesByNode.putIfAbsent(scope.tree(), scope);
     }
 
     @Override
@@ -47,12 +55,7 @@ public class SymbolTableImpl implements SymbolTable {
     @Nullable
     @Override
     public Scope getScopeFor(AstNode node) {
-        for (Scope scope : scopes) {
-            if (scope.tree().equals(node)) {
-                return scope;
-            }
-        }
-        return null;
+        return scopesByNode.get(node);
     }
     
     @Nullable
@@ -68,17 +71,16 @@ public class SymbolTableImpl implements SymbolTable {
     @Nullable
     @Override
     public Symbol getSymbolFor(AstNode node) {
-        for (Symbol symbol : symbols) {
-            if (symbol.declaration().equals(node)) {
-                return symbol;
-            }
-        }
-        return null;
+        return symbolsByDeclaration.get(node);
     }
 
     public Symbol declareSymbol(AstNode name, Symbol.Kind kind, Scope scope) {
         Symbol symbol = new Symbol(name, kind, scope);
         symbols.add(symbol);
+        symbolsByDeclaration.putIfAbsent(name, symbol);
+        if (symbol.name() != null) {
+            symbolsByName.computeIfAbsent(Symbol.normalize(symbol.name()), key -> new ArrayList<>()).add(symbol);
+        }
         scope.addSymbol(symbol);
         return symbol;
     }
@@ -98,7 +100,7 @@ public class SymbolTableImpl implements SymbolTable {
     @Override
     public List<Symbol> getSymbols(Symbol.Kind kind) {
         List<Symbol> result = new ArrayList<>();
-        for (Symbol symbol : getSymbols()){
+        for (Symbol symbol : symbols){
             if (kind.equals(symbol.kind())){
                 result.add(symbol);
             }
@@ -113,13 +115,7 @@ public class SymbolTableImpl implements SymbolTable {
      */
     @Override
     public List<Symbol> getSymbols(String name) {
-        List<Symbol> result = new ArrayList<>();
-        for (Symbol symbol : getSymbols()){
-            if (name.equalsIgnoreCase(symbol.name())){
-                result.add(symbol);
-            }
-        }
-        return result;
+        return new ArrayList<>(symbolsByName.getOrDefault(Symbol.normalize(name), Collections.emptyList()));
     }
 
 }
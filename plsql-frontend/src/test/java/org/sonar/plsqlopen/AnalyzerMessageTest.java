@@ -23,6 +23,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.Locale;
+
 import org.junit.Test;
 import org.sonar.plsqlopen.AnalyzerMessage.TextSpan;
 import org.sonar.plsqlopen.checks.PlSqlCheck;
@@ -50,6 +52,17 @@ public class AnalyzerMessageTest {
         assertThat(location.toString()).isEqualTo("(5:-1)-(5:-1)");
     }
 
+    @Test
+    public void testFormattedMessage() {
+        PlSqlCheck check = mock(PlSqlCheck.class);
+        AnalyzerMessage analyzerMessage = new AnalyzerMessage(check, "Rename \"{0}\" to match {1}.", 1, "x", "[a-z]+");
+        AnalyzerMessage otherMessage = new AnalyzerMessage(check, "Rename \"{0}\" to match {1}.", 2, "y", "[a-z]+");
+        assertThat(analyzerMessage.getDefaultMessage()).isEqualTo("Rename \"{0}\" to match {1}.");
+        assertThat(analyzerMessage.getText(Locale.ENGLISH)).isEqualTo("Rename \"x\" to match [a-z]+.");
+        assertThat(analyzerMessage.getText(Locale.ENGLISH)).isSameAs(analyzerMessage.getText(Locale.ENGLISH));
+        assertThat(otherMessage.getText(Locale.ENGLISH)).isEqualTo("Rename \"y\" to match [a-z]+.");
+    }
+
     @Test
     public void testAnalyzerMessageOnFile2() {
         PlSqlCheck check = mock(PlSqlCheck.class);
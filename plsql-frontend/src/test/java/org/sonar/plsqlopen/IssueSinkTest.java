@@ -0,0 +1,65 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen;
+
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Test;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.plsqlopen.checks.PlSqlCheck;
+
+public class IssueSinkTest {
+
+    private final SonarComponents components = mock(SonarComponents.class);
+    private final InputFile inputFile = mock(InputFile.class);
+    private final PlSqlCheck check = mock(PlSqlCheck.class);
+    
+    @Test
+    public void shouldReportPendingIssuesOnFlush() {
+        IssueSink sink = new IssueSink(components, inputFile);
+        
+        sink.add(new AnalyzerMessage(check, "message", 1));
+        sink.add(new AnalyzerMessage(check, "message", 2));
+        verify(components, never()).reportIssues(anyListOf(AnalyzerMessage.class), eq(inputFile));
+        
+        sink.flush();
+        sink.flush();
+        verify(components, times(1)).reportIssues(anyListOf(AnalyzerMessage.class), eq(inputFile));
+    }
+    
+    @Test
+    public void shouldFlushWhenTheBufferIsFull() {
+        IssueSink sink = new IssueSink(components, inputFile);
+        
+        for (int i = 0; i < IssueSink.MAX_PENDING_ISSUES * 2 + 1; i++) {
+            sink.add(new AnalyzerMessage(check, "message", 1));
+        }
+        verify(components, times(2)).reportIssues(anyListOf(AnalyzerMessage.class), eq(inputFile));
+        
+        sink.flush();
+        verify(components, times(3)).reportIssues(anyListOf(AnalyzerMessage.class), eq(inputFile));
+    }
+
+}
@@ -20,6 +20,9 @@
 package org.sonar.plsqlopen;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -30,6 +33,7 @@ import org.sonar.api.batch.rule.internal.ActiveRulesBuilder;
 import org.sonar.api.rule.RuleKey;
 import org.sonar.api.server.rule.RulesDefinition;
 import org.sonar.check.Rule;
+import org.sonar.check.RuleProperty;
 import org.sonar.plsqlopen.checks.PlSqlCheck;
 
 import com.google.common.collect.ImmutableList;
@@ -47,7 +51,7 @@ public class PlSqlChecksTest {
     @Before
     public void setUp() {
         ActiveRules activeRules = (new ActiveRulesBuilder())
-                .create(RuleKey.of(DEFAULT_REPOSITORY_KEY, DEFAULT_RULE_KEY)).activate()
+                .create(RuleKey.of(DEFAULT_REPOSITORY_KEY, DEFAULT_RULE_KEY)).setParam("threshold", "5").activate()
                 .create(RuleKey.of(CUSTOM_REPOSITORY_KEY, CUSTOM_RULE_KEY)).activate()
                 .build();
         checkFactory = new CheckFactory(activeRules);
@@ -100,6 +104,36 @@ public class PlSqlChecksTest {
         assertThat(checks.ruleKey(new MyCustomRule())).isNull();
     }
     
+    @SuppressWarnings("rawtypes")
+    @Test
+    public void shouldCreateNewInstancesOfChecks() {
+        PlSqlChecks checks = PlSqlChecks.createPlSqlCheck(checkFactory);
+        checks.addChecks(DEFAULT_REPOSITORY_KEY, ImmutableList.<Class>of(MyRule.class));
+        
+        PlSqlCheck defaultCheck = check(checks, DEFAULT_REPOSITORY_KEY, DEFAULT_RULE_KEY);
+        List<PlSqlCheck> instances = checks.newInstances();
+        
+        assertThat(instances).hasSize(1);
+        assertThat(instances.get(0)).isNotSameAs(defaultCheck).isInstanceOf(MyRule.class);
+        assertThat(((MyRule) instances.get(0)).threshold).isEqualTo(5);
+        assertThat(checks.ruleKey(instances.get(0))).isEqualTo(RuleKey.of(DEFAULT_REPOSITORY_KEY, DEFAULT_RULE_KEY));
+    }
+    
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    @Test
+    public void shouldFailToCreateNewInstancesOfChecksWithoutConstructorWithoutArguments() {
+        PlSqlChecks checks = PlSqlChecks.createPlSqlCheck(checkFactory);
+        checks.addChecks(DEFAULT_REPOSITORY_KEY, (Iterable) ImmutableList.of(new MyRuleWithoutDefaultConstructor(5)));
+        
+        try {
+            checks.newInstances();
+            fail("Expected an IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage()).contains(MyRuleWithoutDefaultConstructor.class.getName())
+                .contains("public constructor without arguments");
+        }
+    }
+    
     public PlSqlCheck check(PlSqlChecks plSqlChecks, String repository, String rule) {
         RuleKey key = RuleKey.of(repository, rule);
         
@@ -117,6 +151,20 @@ public class PlSqlChecksTest {
 
     @Rule(key = DEFAULT_RULE_KEY, name = "This is the default rule", description = "desc")
     public static class MyRule extends PlSqlCheck {
+        
+        @RuleProperty(key = "threshold", defaultValue = "3")
+        public int threshold = 3;
+    }
+    
+    @Rule(key = DEFAULT_RULE_KEY, name = "This is the default rule", description = "desc")
+    public static class MyRuleWithoutDefaultConstructor extends PlSqlCheck {
+        
+        @RuleProperty(key = "threshold", defaultValue = "3")
+        public int threshold;
+        
+        public MyRuleWithoutDefaultConstructor(int threshold) {
+            this.threshold = threshold;
+        }
     }
     
     @Rule(key = CUSTOM_RULE_KEY, name = "This is a custom rule", description = "desc")
@@ -28,7 +28,9 @@ import static org.mockito.Mockito.when;
 import java.io.File;
 
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -41,11 +43,16 @@ import org.sonar.api.rule.RuleKey;
 import org.sonar.plsqlopen.checks.PlSqlCheck;
 import org.sonar.plsqlopen.metadata.FormsMetadata;
 
+import com.google.common.base.Charsets;
 import com.google.common.collect.Lists;
+import com.google.common.io.Files;
 
 @RunWith(MockitoJUnitRunner.class)
 public class SonarComponentsTest {
     
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+    
     @Mock
     private SensorContext context;
     
@@ -114,6 +121,50 @@ public class SonarComponentsTest {
         assertThat(metadata.getBlocks()[1].getName()).isEqualTo("bar");
         assertThat(metadata.getBlocks()[1].getItems()).containsExactly("item1", "item2");
         assertThat(metadata.getLovs()).containsExactly("foo", "bar");
+        
+        assertThat(metadata.hasAlert("FOO")).isTrue();
+        assertThat(metadata.hasAlert("baz")).isFalse();
+        assertThat(metadata.hasBlock("Bar")).isTrue();
+        assertThat(metadata.hasItem("foo.ITEM2")).isTrue();
+        assertThat(metadata.hasItem("foo.item3")).isFalse();
+        assertThat(metadata.hasItem("item1")).isFalse();
+        assertThat(metadata.hasLov("bar")).isTrue();
+    }
+    
+    @Test
+    public void canReadMetadataOfEachForm() {
+        SonarComponents sonarComponents = new SonarComponents(context);
+        sonarComponents.loadMetadataFile("src/test/resources/metadata/forms");
+        assertThat(sonarComponents.hasFormsMetadata()).isTrue();
+        assertThat(sonarComponents.getFormsMetadata()).isNull();
+        
+        FormsMetadata emp = sonarComponents.getFormsMetadata(new File("src/EMP.fmb.sql"));
+        assertThat(emp.getAlerts()).containsExactly("emp_alert");
+        assertThat(emp.hasItem("emp.ename")).isTrue();
+        assertThat(emp.hasLov("emp_lov")).isTrue();
+        assertThat(sonarComponents.getFormsMetadata(new File("src/EMP.pld"))).isSameAs(emp);
+        
+        FormsMetadata dept = sonarComponents.getFormsMetadata(new File("src/dept/triggers/when_new_form_instance.sql"));
+        assertThat(dept.hasBlock("DEPT")).isTrue();
+        assertThat(dept.hasBlock("emp")).isFalse();
+        assertThat(dept.getLovs()).isEmpty();
+        
+        assertThat(sonarComponents.getFormsMetadata(new File("src/other.sql"))).isNull();
+    }
+    
+    @Test
+    public void readsAFormThatCannotBeReadOnlyOnce() throws Exception {
+        File forms = temp.newFolder();
+        File form = new File(forms, "BROKEN.json");
+        Files.write("{\"alerts\": [", form, Charsets.UTF_8);
+        
+        SonarComponents sonarComponents = new SonarComponents(context);
+        sonarComponents.loadMetadataFile(forms.getAbsolutePath());
+        assertThat(sonarComponents.getFormsMetadata(new File("src/broken.sql"))).isNull();
+        
+        // the failure is kept, so the file isn't read again
+        Files.write("{\"alerts\": [\"foo\"]}", form, Charsets.UTF_8);
+        assertThat(sonarComponents.getFormsMetadata(new File("src/broken.sql"))).isNull();
     }
     
     private static class CustomCheck extends PlSqlCheck {
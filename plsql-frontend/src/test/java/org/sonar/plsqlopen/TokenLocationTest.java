@@ -0,0 +1,81 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+import com.sonar.sslr.api.Token;
+
+public class TokenLocationTest {
+
+    @Test
+    public void singleLineToken() {
+        TokenLocation location = TokenLocation.from(token("begin", 3, 4));
+        assertThat(location.line()).isEqualTo(3);
+        assertThat(location.column()).isEqualTo(4);
+        assertThat(location.endLine()).isEqualTo(3);
+        assertThat(location.endColumn()).isEqualTo(9);
+    }
+
+    @Test
+    public void multiLineTokenWithMixedLineTerminators() {
+        TokenLocation location = TokenLocation.from(token("/* a\r\nb\nc\rdef */", 2, 6));
+        assertThat(location.line()).isEqualTo(2);
+        assertThat(location.column()).isEqualTo(6);
+        assertThat(location.endLine()).isEqualTo(5);
+        assertThat(location.endColumn()).isEqualTo(6);
+    }
+
+    @Test
+    public void countLineBreaks() {
+        assertThat(TokenLocation.lineBreaks("abc")).isEqualTo(0);
+        assertThat(TokenLocation.lineBreaks("a\r\nb")).isEqualTo(1);
+        assertThat(TokenLocation.lineBreaks("a\n\nb\r")).isEqualTo(3);
+        assertThat(TokenLocation.lineBreaks("\r\r\n")).isEqualTo(2);
+    }
+
+    @Test
+    public void tokenEndingWithLineTerminator() {
+        TokenLocation location = TokenLocation.from(token("-- a\r", 1, 0));
+        assertThat(location.endLine()).isEqualTo(1 + TokenLocation.lineBreaks("-- a\r"));
+        assertThat(location.endColumn()).isEqualTo(0);
+    }
+
+    @Test
+    public void endColumnWithoutLocation() {
+        assertThat(TokenLocation.endColumn(token("begin", 3, 4))).isEqualTo(9);
+        assertThat(TokenLocation.endColumn(token("/* a\r\nb\nc\rdef */", 2, 6))).isEqualTo(6);
+        assertThat(TokenLocation.endColumn(token("'a\r\n'", 1, 2))).isEqualTo(1);
+        assertThat(TokenLocation.endColumn(token("-- a\r", 1, 0))).isEqualTo(0);
+    }
+
+    private static Token token(String value, int line, int column) {
+        Token token = mock(Token.class);
+        when(token.getValue()).thenReturn(value);
+        when(token.getLine()).thenReturn(line);
+        when(token.getColumn()).thenReturn(column);
+        return token;
+    }
+
+}
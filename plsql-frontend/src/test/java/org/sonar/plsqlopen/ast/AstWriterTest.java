@@ -0,0 +1,104 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.ast;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.plsqlopen.parser.PlSqlParser;
+import org.sonar.plsqlopen.squid.PlSqlConfiguration;
+import org.sonar.plugins.plsqlopen.api.PlSqlGrammar;
+
+import com.google.common.base.Charsets;
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.api.Trivia;
+
+public class AstWriterTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+    
+    @Test
+    public void shouldReadTheSameTree() throws IOException {
+        File file = new File("src/test/resources/metrics/methods.sql");
+        AstNode ast = PlSqlParser.create(new PlSqlConfiguration(Charsets.UTF_8)).parse(file);
+        
+        File serialized = temp.newFile();
+        AstWriter.write(ast, serialized.toPath());
+        AstNode copy = AstReader.read(serialized.toPath());
+        
+        assertThat(dump(copy)).isEqualTo(dump(ast));
+        assertThat(copy.getToken().getURI()).isEqualTo(ast.getToken().getURI());
+        assertThat(copy.getFirstDescendant(PlSqlGrammar.CREATE_PROCEDURE)).isNotNull();
+    }
+    
+    @Test
+    public void shouldKeepCommentsAndOriginalValues() throws IOException {
+        AstNode ast = PlSqlParser.create(new PlSqlConfiguration(Charsets.UTF_8)).parse("-- comment\nbegin\n  x := 'é';\nEND;");
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AstWriter.write(ast, out);
+        AstNode copy = AstReader.read(ByteBuffer.wrap(out.toByteArray()));
+        
+        assertThat(dump(copy)).isEqualTo(dump(ast));
+        Token begin = copy.getToken();
+        assertThat(begin.getOriginalValue()).isEqualTo("begin");
+        assertThat(begin.getValue()).isEqualTo("BEGIN");
+        assertThat(begin.getTrivia()).hasSize(1);
+        assertThat(begin.getTrivia().get(0).getToken().getValue()).isEqualTo("-- comment");
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectOtherContent() {
+        AstReader.read(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5 }));
+    }
+    
+    private static String dump(AstNode ast) {
+        StringBuilder sb = new StringBuilder();
+        dump(ast, sb);
+        return sb.toString();
+    }
+    
+    private static void dump(AstNode node, StringBuilder sb) {
+        sb.append(node.getType()).append(' ').append(node.getName())
+            .append(' ').append(node.getFromIndex()).append('-').append(node.getToIndex());
+        Token token = node.getToken();
+        if (token != null) {
+            sb.append(' ').append(token.getType()).append(' ').append(token.getValue()).append(' ').append(token.getOriginalValue())
+                .append(' ').append(token.getLine()).append(':').append(token.getColumn());
+            for (Trivia trivia : token.getTrivia()) {
+                sb.append(" [").append(trivia.getToken().getValue()).append(' ').append(trivia.getToken().getLine()).append(']');
+            }
+        }
+        sb.append('\n');
+        for (AstNode child : node.getChildren()) {
+            dump(child, sb);
+        }
+    }
+    
+}
@@ -0,0 +1,178 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.api.batch.sensor.highlighting.TypeOfText;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.plsqlopen.AnalyzerMessage;
+import org.sonar.plugins.plsqlopen.api.PlSqlMetric;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import com.google.gson.Gson;
+
+public class AnalysisCacheTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+    
+    @Test
+    public void shouldLoadSavedResults() throws IOException {
+        File directory = temp.newFolder();
+        File file = newFile("begin\n  null;\nend;");
+        
+        AnalysisCache cache = new AnalysisCache(directory, temp.getRoot(), "fingerprint");
+        assertThat(cache.load(file)).isNull();
+        
+        CachedResults results = cache.record(file);
+        AnalyzerMessage message = new AnalyzerMessage(null, "message", new AnalyzerMessage.TextSpan(1, 0, 3, 4));
+        message.setCost(2.0);
+        message.addSecondaryLocation(new AnalyzerMessage(null, "secondary", new AnalyzerMessage.TextSpan(2, 2, 2, 6)));
+        results.addIssue(RuleKey.of("plsql", "Rule"), message);
+        results.setMeasure(PlSqlMetric.LINES_OF_CODE, 3);
+        results.addFunctionComplexity(2.0);
+        results.addHighlighting(1, 0, 1, 5, TypeOfText.KEYWORD);
+        results.addCpdToken(1, 0, 1, 5, "BEGIN");
+        results.addSymbol(1, 0, 1, 1).addReference(2, 0, 2, 1);
+        cache.save();
+        
+        CachedResults loaded = new AnalysisCache(directory, temp.getRoot(), "fingerprint").load(file);
+        assertThat(loaded).isNotNull();
+        assertThat(loaded.getMeasure(PlSqlMetric.LINES_OF_CODE)).isEqualTo(3);
+        assertThat(loaded.getMeasure(PlSqlMetric.STATEMENTS)).isEqualTo(0);
+        assertThat(loaded.getFunctionComplexities()).containsExactly(2.0);
+        assertThat(loaded.getHighlightings()).hasSize(1);
+        assertThat(loaded.getHighlightings().get(0).type).isEqualTo(TypeOfText.KEYWORD);
+        assertThat(loaded.getCpdTokens().get(0).value).isEqualTo("BEGIN");
+        assertThat(loaded.getSymbols().get(0).references.get(0).startLine).isEqualTo(2);
+        
+        CachedResults.Issue issue = loaded.getIssues().get(0);
+        assertThat(issue.getRuleKey()).isEqualTo(RuleKey.of("plsql", "Rule"));
+        AnalyzerMessage replayed = issue.toMessage();
+        assertThat(replayed.getText(null)).isEqualTo("message");
+        assertThat(replayed.getLine()).isEqualTo(1);
+        assertThat(replayed.getCost()).isEqualTo(2.0);
+        assertThat(replayed.getLocation().endCharacter).isEqualTo(4);
+        assertThat(replayed.getSecondaryLocations()).hasSize(1);
+        assertThat(replayed.getSecondaryLocations().get(0).getText(null)).isEqualTo("secondary");
+    }
+    
+    @Test
+    public void shouldNotLoadResultsOfOtherContentOrFingerprint() throws IOException {
+        File directory = temp.newFolder();
+        File file = newFile("begin\n  null;\nend;");
+        
+        AnalysisCache cache = new AnalysisCache(directory, temp.getRoot(), "fingerprint");
+        cache.record(file);
+        cache.save();
+        
+        assertThat(new AnalysisCache(directory, temp.getRoot(), "other fingerprint").load(file)).isNull();
+        
+        Files.write("begin\n  x := 1;\nend;", file, Charsets.UTF_8);
+        assertThat(new AnalysisCache(directory, temp.getRoot(), "fingerprint").load(file)).isNull();
+    }
+    
+    @Test
+    public void shouldNotLoadResultsOfAFileModifiedSinceThen() throws IOException {
+        File directory = temp.newFolder();
+        File file = newFile("begin\n  null;\nend;");
+        
+        AnalysisCache cache = new AnalysisCache(directory, temp.getRoot(), "fingerprint");
+        cache.record(file);
+        cache.save();
+        
+        assertThat(file.setLastModified(file.lastModified() - 10_000)).isTrue();
+        assertThat(new AnalysisCache(directory, temp.getRoot(), "fingerprint").load(file)).isNull();
+    }
+    
+    @Test
+    public void shouldKeepTheStampTakenBeforeTheAnalysis() throws IOException {
+        File directory = temp.newFolder();
+        File file = newFile("begin\n  null;\nend;");
+        
+        AnalysisCache cache = new AnalysisCache(directory, temp.getRoot(), "fingerprint");
+        assertThat(cache.load(file)).isNull();
+        Files.write("begin\n  x := 1;\nend;", file, Charsets.UTF_8);
+        cache.record(file);
+        cache.save();
+        
+        assertThat(new AnalysisCache(directory, temp.getRoot(), "fingerprint").load(file)).isNull();
+    }
+    
+    @Test
+    public void shouldIdentifyTheVersionByTheContentOfTheJar() throws Exception {
+        File jar = new File(Gson.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        assertThat(AnalysisCache.versionOf(Gson.class)).isEqualTo(AnalysisCache.hash(Files.toByteArray(jar)));
+        
+        String location = AnalysisCacheTest.class.getProtectionDomain().getCodeSource().getLocation().toString();
+        assertThat(AnalysisCache.versionOf(AnalysisCacheTest.class)).isEqualTo(location);
+    }
+    
+    @Test
+    public void shouldDeleteUnusedEntries() throws IOException {
+        File directory = temp.newFolder();
+        File file = newFile("begin\n  null;\nend;");
+        File otherFile = newFile("begin\n  x := 1;\nend;");
+        
+        AnalysisCache cache = new AnalysisCache(directory, temp.getRoot(), "fingerprint");
+        cache.record(file);
+        cache.record(otherFile);
+        cache.save();
+        assertThat(directory.list()).hasSize(2);
+        
+        cache = new AnalysisCache(directory, temp.getRoot(), "fingerprint");
+        assertThat(cache.load(file)).isNotNull();
+        cache.save();
+        assertThat(directory.list()).hasSize(1);
+        assertThat(new AnalysisCache(directory, temp.getRoot(), "fingerprint").load(file)).isNotNull();
+    }
+    
+    @Test
+    public void shouldKeepTheResultsOfIdenticalFilesApart() throws IOException {
+        File directory = temp.newFolder();
+        File file = newFile("begin\n  null;\nend;");
+        File copy = newFile("begin\n  null;\nend;");
+        
+        AnalysisCache cache = new AnalysisCache(directory, temp.getRoot(), "fingerprint");
+        cache.record(file).setMeasure(PlSqlMetric.LINES_OF_CODE, 3);
+        cache.record(copy).setMeasure(PlSqlMetric.LINES_OF_CODE, 4);
+        cache.save();
+        assertThat(directory.list()).hasSize(2);
+        
+        cache = new AnalysisCache(directory, temp.getRoot(), "fingerprint");
+        assertThat(cache.load(file).getMeasure(PlSqlMetric.LINES_OF_CODE)).isEqualTo(3);
+        assertThat(cache.load(copy).getMeasure(PlSqlMetric.LINES_OF_CODE)).isEqualTo(4);
+    }
+    
+    private File newFile(String content) throws IOException {
+        File file = temp.newFile();
+        Files.write(content, file, Charsets.UTF_8);
+        return file;
+    }
+    
+}
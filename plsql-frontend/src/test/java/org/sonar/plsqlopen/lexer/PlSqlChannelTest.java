@@ -0,0 +1,124 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.lexer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.sonar.plsqlopen.squid.PlSqlConfiguration;
+
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.api.Trivia;
+import com.sonar.sslr.impl.Lexer;
+
+public class PlSqlChannelTest {
+
+    private static final String[] RESOURCES = {
+        "src/test/resources",
+        "../plsql-checks/src/test/resources",
+        "../plsql-checks-testkit/src/test/resources",
+        "../plsql-custom-rules/src/test/resources",
+        "../sonar-plsql-open-plugin/src/test/resources"
+    };
+    
+    private final Lexer lexer = PlSqlLexer.create(new PlSqlConfiguration(StandardCharsets.UTF_8));
+    private final Lexer referenceLexer = RegexpPlSqlLexer.create(new PlSqlConfiguration(StandardCharsets.UTF_8));
+    
+    @Test
+    public void shouldProduceTheSameTokensAsTheRegularExpressionsForTestFiles() throws IOException {
+        List<File> files = new ArrayList<>();
+        for (String resources : RESOURCES) {
+            Path dir = Paths.get(resources);
+            if (Files.isDirectory(dir)) {
+                try (Stream<Path> paths = Files.walk(dir)) {
+                    files.addAll(paths.filter(path -> path.toString().endsWith(".sql")).map(Path::toFile).collect(Collectors.toList()));
+                }
+            }
+        }
+        
+        assertThat(files).isNotEmpty();
+        for (File file : files) {
+            assertThat(describe(lexer.lex(file))).as(file.getPath()).isEqualTo(describe(referenceLexer.lex(file)));
+        }
+    }
+    
+    @Test
+    public void shouldProduceTheSameTokensAsTheRegularExpressionsForCornerCases() {
+        String[] sources = {
+            "", " \t\r\n\u000B\f ", "x -- comment\r\ny", "--", "/**/", "/*/ x", "/* unclosed", "a/*b*/c",
+            "1", "1.", ".5", "1.5", "1..2", "..", "1e", "1e+", "1e-5", "1.E5", "1.5e+3x", "2E5E5", "12abc",
+            "''", "'''", "''''", "'a''b'", "'unclosed", "'a'''", "'it''s'' x", "'multi\nline'",
+            "q'!a!'", "Q'[a]'", "nq'{a}'", "Nq'<a>'", "q' a '", "q'xax'", "q'XaX'",
+            "q'", "q'!", "nq", "n'a'", "q'!a", "q'éaé'",
+            "q'[a]b]'", "q'#a)'#'", "q'<a>' x q'!b!'",
+            "date '2015-01-01'", "DATE '2015-1-01'", "Date '20150-01-01'", "DATE  '2015-01-01'", "dated",
+            "abc", "a#$_1", "ção", "ınsert", "ſelect", "$x", "#x", "_x", "\"quoted\"", "\"\"", "\"\"\"", "\"a\nb\"", "\"",
+            "select * from dual", "begin x := 1; end;", "a => b", "a || b", "<<label>>", "x != y <> z ~= w ^= v",
+            "a <= b >= c", "2 ** 3", "x@db", "a % b", "!", "~", "^", "|", "&", "[", "\u0000", " ", "𝐀x"
+        };
+        
+        for (String source : sources) {
+            assertThat(describe(lexer.lex(source))).as(source).isEqualTo(describe(referenceLexer.lex(source)));
+        }
+    }
+    
+    @Test
+    public void shouldEndTextWithUserDefinedDelimiterAtTheFirstExactClosingDelimiter() {
+        // the regular expressions went on to the last closing delimiter of the input, accepted any closing bracket
+        // and ignored the case of the delimiter, unlike Oracle
+        assertThat(values(lexer.lex("q'(a)' || q'(b)'"))).containsExactly("q'(a)'", "||", "q'(b)'", "EOF");
+        assertThat(values(lexer.lex("q'[a]' || q'[b]'"))).containsExactly("q'[a]'", "||", "q'[b]'", "EOF");
+        assertThat(values(lexer.lex("q'(a)'\n/\nq'(b)'"))).containsExactly("q'(a)'", "/", "q'(b)'", "EOF");
+        assertThat(values(lexer.lex("q'[a)'"))).containsExactly("Q", "'[a)'", "EOF");
+        assertThat(values(lexer.lex("q'xaX'"))).containsExactly("Q", "'xaX'", "EOF");
+    }
+    
+    private static List<String> values(Collection<Token> tokens) {
+        return tokens.stream().map(Token::getValue).collect(Collectors.toList());
+    }
+    
+    private static List<String> describe(Collection<Token> tokens) {
+        List<String> description = new ArrayList<>();
+        for (Token token : tokens) {
+            for (Trivia trivia : token.getTrivia()) {
+                description.add("trivia " + describe(trivia.getToken()));
+            }
+            description.add(describe(token));
+        }
+        return description;
+    }
+    
+    private static String describe(Token token) {
+        return token.getType() + " " + token.getValue() + " " + token.getOriginalValue() + " " + token.getLine() + ":" + token.getColumn();
+    }
+    
+}
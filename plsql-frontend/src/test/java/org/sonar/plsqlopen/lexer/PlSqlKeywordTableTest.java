@@ -0,0 +1,55 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.lexer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.sonar.plugins.plsqlopen.api.PlSqlKeyword;
+
+public class PlSqlKeywordTableTest {
+
+    @Test
+    public void shouldFindAllKeywordsIgnoringCase() {
+        for (PlSqlKeyword keyword : PlSqlKeyword.values()) {
+            String value = keyword.getValue();
+            assertThat(PlSqlKeywordTable.lookup(value, value.length())).isEqualTo(keyword);
+            assertThat(PlSqlKeywordTable.lookup(value.toUpperCase(), value.length())).isEqualTo(keyword);
+            assertThat(PlSqlKeywordTable.upperCaseValue(keyword)).isEqualTo(value.toUpperCase());
+        }
+        assertThat(PlSqlKeywordTable.lookup("BeGiN", 5)).isEqualTo(PlSqlKeyword.BEGIN);
+    }
+    
+    @Test
+    public void shouldOnlyCompareTheGivenLength() {
+        assertThat(PlSqlKeywordTable.lookup("begin;", 5)).isEqualTo(PlSqlKeyword.BEGIN);
+        assertThat(PlSqlKeywordTable.lookup("beginning", 9)).isNull();
+        assertThat(PlSqlKeywordTable.lookup("begin", 4)).isNull();
+    }
+    
+    @Test
+    public void shouldNotFindIdentifiers() {
+        assertThat(PlSqlKeywordTable.lookup("foo", 3)).isNull();
+        assertThat(PlSqlKeywordTable.lookup("", 0)).isNull();
+        assertThat(PlSqlKeywordTable.lookup("begın", 5)).isNull();
+        assertThat(PlSqlKeywordTable.lookup("a_very_long_identifier_that_is_not_a_keyword", 44)).isNull();
+    }
+    
+}
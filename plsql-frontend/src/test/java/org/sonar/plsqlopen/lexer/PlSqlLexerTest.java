@@ -83,6 +83,14 @@ public class PlSqlLexerTest {
         assertThatIsToken("nq'(I'm a string)'", PlSqlTokenType.STRING_LITERAL);
     }
     
+    @Test
+    public void stringLiteralWithUserDefinedDelimitersEndsAtTheFirstClosingDelimiter() {
+        assertThat(lexer.lex("q'[first]' || q'[second]'"), hasToken("q'[first]'", PlSqlTokenType.STRING_LITERAL));
+        assertThat(lexer.lex("q'[first]' || q'[second]'"), hasToken("q'[second]'", PlSqlTokenType.STRING_LITERAL));
+        assertThatIsToken("q'[a)b]'", PlSqlTokenType.STRING_LITERAL);
+        assertThatIsToken("q'xaX'x'", PlSqlTokenType.STRING_LITERAL);
+    }
+    
     @Test
     public void stringLiteralWithUserDefinedDelimitersAndLineBreak() {
         assertThatIsToken("q'!First\nSecond!'", PlSqlTokenType.STRING_LITERAL);
@@ -0,0 +1,64 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.lexer;
+
+import static com.sonar.sslr.impl.channel.RegexpChannelBuilder.commentRegexp;
+import static com.sonar.sslr.impl.channel.RegexpChannelBuilder.or;
+import static com.sonar.sslr.impl.channel.RegexpChannelBuilder.regexp;
+
+import org.sonar.plsqlopen.squid.PlSqlConfiguration;
+import org.sonar.plugins.plsqlopen.api.PlSqlKeyword;
+import org.sonar.plugins.plsqlopen.api.PlSqlPunctuator;
+import org.sonar.plugins.plsqlopen.api.PlSqlTokenType;
+
+import com.sonar.sslr.impl.Lexer;
+import com.sonar.sslr.impl.channel.BlackHoleChannel;
+import com.sonar.sslr.impl.channel.IdentifierAndKeywordChannel;
+import com.sonar.sslr.impl.channel.PunctuatorChannel;
+import com.sonar.sslr.impl.channel.UnknownCharacterChannel;
+
+/**
+ * The lexer replaced by the {@link PlSqlChannel}, built with the regular expression channels of
+ * {@link PlSqlLexer}. It is the reference for the tokens produced by the channel.
+ */
+@SuppressWarnings("deprecation")
+public class RegexpPlSqlLexer {
+
+    private RegexpPlSqlLexer() {
+    }
+
+    public static Lexer create(PlSqlConfiguration conf) {
+        return Lexer
+                .builder()
+                .withCharset(conf.getCharset())
+                .withFailIfNoChannelToConsumeOneCharacter(true)
+                .withChannel(new BlackHoleChannel("\\s"))
+                .withChannel(commentRegexp(PlSqlLexer.COMMENT))
+                .withChannel(regexp(PlSqlTokenType.SCIENTIFIC_LITERAL, PlSqlLexer.SCIENTIFIC_LITERAL))
+                .withChannel(regexp(PlSqlTokenType.REAL_LITERAL, PlSqlLexer.REAL_LITERAL))
+                .withChannel(regexp(PlSqlTokenType.INTEGER_LITERAL, PlSqlLexer.INTEGER_LITERAL))
+                .withChannel(regexp(PlSqlTokenType.STRING_LITERAL, PlSqlLexer.STRING_LITERAL))
+                .withChannel(regexp(PlSqlTokenType.DATE_LITERAL, PlSqlLexer.DATE_LITERAL))
+                .withChannel(new IdentifierAndKeywordChannel(or(PlSqlLexer.SIMPLE_IDENTIFIER, PlSqlLexer.QUOTED_IDENTIFIER), false, PlSqlKeyword.values()))
+                .withChannel(new PunctuatorChannel(PlSqlPunctuator.values()))
+                .withChannel(new UnknownCharacterChannel())
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.matchers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sonar.plugins.plsqlopen.api.PlSqlGrammar;
+import org.sonar.plugins.plsqlopen.api.RuleTest;
+
+import com.sonar.sslr.api.AstNode;
+
+public class MethodMatcherSetTest extends RuleTest {
+
+    @Before
+    public void init() {
+        setRootRule(PlSqlGrammar.EXPRESSION);
+    }
+    
+    @Test
+    public void findMatcherByNameAndParameters() {
+        MethodMatcher func1 = MethodMatcher.create().name("func").addParameter();
+        MethodMatcher func2 = MethodMatcher.create().name("func").addParameters(2);
+        MethodMatcher packFunc = MethodMatcher.create().packageName("pack").name("func").addParameter();
+        MethodMatcher other = MethodMatcher.create().name("other").withNoParameterConstraint();
+        MethodMatcherSet set = MethodMatcherSet.of(func1, func2, packFunc, other);
+        
+        assertThat(set.match(parse("func(x)")).getMatcher()).isSameAs(func1);
+        assertThat(set.match(parse("FUNC(x, y)")).getMatcher()).isSameAs(func2);
+        assertThat(set.match(parse("pack.func(x)")).getMatcher()).isSameAs(packFunc);
+        assertThat(set.match(parse("Other")).getMatcher()).isSameAs(other);
+        assertThat(set.match(parse("func(x, y, z)"))).isNull();
+        assertThat(set.match(parse("foo(x)"))).isNull();
+        assertThat(set.matches(parse("func(x)"))).isTrue();
+        assertThat(set.matches(parse("foo(x)"))).isFalse();
+    }
+    
+    @Test
+    public void returnNamesAndArgumentsOfTheCall() {
+        MethodMatcherSet set = MethodMatcherSet.of(
+                MethodMatcher.create().schema("sch").schemaIsOptional().packageName("pack").name("func").addParameters(2));
+        
+        MethodMatch match = set.match(parse("Sch.Pack.Func(x, y)"));
+        assertThat(match.getSchema()).isEqualTo("Sch");
+        assertThat(match.getPackageName()).isEqualTo("Pack");
+        assertThat(match.getMethodName()).isEqualTo("Func");
+        assertThat(match.getArguments()).extracting(AstNode::getTokenOriginalValue).containsExactly("x", "y");
+        
+        match = set.match(parse("pack.func(x, y)"));
+        assertThat(match.getSchema()).isNull();
+        assertThat(match.getPackageName()).isEqualTo("pack");
+    }
+    
+    @Test
+    public void keepOrderOfMatchersWithOtherCriteria() {
+        MethodMatcher anyMethod = MethodMatcher.create().name(NameCriteria.startsWith("fu")).withNoParameterConstraint();
+        MethodMatcher func = MethodMatcher.create().name("func").withNoParameterConstraint();
+        MethodMatcher anyOtherMethod = MethodMatcher.create().name(NameCriteria.any()).withNoParameterConstraint();
+        
+        assertThat(MethodMatcherSet.of(anyMethod, func).match(parse("func(x)")).getMatcher()).isSameAs(anyMethod);
+        assertThat(MethodMatcherSet.of(func, anyMethod).match(parse("func(x)")).getMatcher()).isSameAs(func);
+        assertThat(MethodMatcherSet.of(func, anyOtherMethod).match(parse("foo(x)")).getMatcher()).isSameAs(anyOtherMethod);
+    }
+    
+    private AstNode parse(String text) {
+        return p.parse(text).getFirstChild();
+    }
+    
+}
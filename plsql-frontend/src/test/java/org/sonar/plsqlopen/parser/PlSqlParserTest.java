@@ -0,0 +1,59 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.sonar.plsqlopen.squid.PlSqlConfiguration;
+import org.sonar.plugins.plsqlopen.api.PlSqlGrammar;
+
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.Grammar;
+import com.sonar.sslr.impl.Parser;
+import com.sonar.sslr.impl.matcher.RuleDefinition;
+
+public class PlSqlParserTest {
+
+    @Test
+    public void copyOfTheParserKeepsTheLexer() {
+        // the grammar tests copy the parser this way, through the assertions of the testing harness
+        Parser<Grammar> copy = Parser.builder(PlSqlParser.create(new PlSqlConfiguration(StandardCharsets.UTF_8))).build();
+        
+        AstNode fileInput = copy.parse("select 1 from dual;");
+        
+        assertThat(fileInput.is(PlSqlGrammar.FILE_INPUT)).isTrue();
+        assertThat(fileInput.getTokens()).isNotEmpty();
+    }
+    
+    @Test
+    public void grammarMemoizesAllRulesUnlessTheRulesAreGiven() {
+        Grammar grammar = PlSqlGrammar.create().build();
+        assertThat(((RuleDefinition) grammar.rule(PlSqlGrammar.STATEMENT)).shouldMemoize()).isTrue();
+        assertThat(((RuleDefinition) grammar.rule(PlSqlGrammar.EXPRESSION)).shouldMemoize()).isTrue();
+        
+        grammar = PlSqlGrammar.createWithMemoizationOf(PlSqlGrammar.MEMOIZED_RULES).build();
+        assertThat(((RuleDefinition) grammar.rule(PlSqlGrammar.STATEMENT)).shouldMemoize()).isFalse();
+        assertThat(((RuleDefinition) grammar.rule(PlSqlGrammar.EXPRESSION)).shouldMemoize()).isTrue();
+    }
+    
+}
@@ -0,0 +1,63 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.Test;
+import org.sonar.plsqlopen.lexer.PlSqlLexer;
+import org.sonar.plsqlopen.squid.PlSqlConfiguration;
+import org.sonar.plugins.plsqlopen.api.PlSqlGrammar;
+
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.Grammar;
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.impl.matcher.RuleDefinition;
+
+public class RuleParserTest {
+
+    private final PlSqlConfiguration conf = new PlSqlConfiguration(StandardCharsets.UTF_8);
+    private final Grammar grammar = PlSqlGrammar.create().build();
+    private final RuleDefinition fileInput = (RuleDefinition) grammar.rule(PlSqlGrammar.FILE_INPUT);
+    
+    @Test
+    public void compilesOnlyWithTheVerifiedVersionOfSslr() {
+        assertThat(RuleParser.CAN_COMPILE).isTrue();
+        assertThat(RuleParser.canCompile(SslrVersion.VERIFIED)).isTrue();
+        assertThat(RuleParser.canCompile("1.22")).isFalse();
+        assertThat(RuleParser.canCompile(null)).isFalse();
+    }
+    
+    @Test
+    public void sameTreeWithoutCompiledRule() {
+        List<Token> tokens = PlSqlLexer.create(conf).lex("begin\n  x := 1;\nend;\n/\nselect 1 from dual;");
+        
+        AstNode compiled = new RuleParser(grammar, fileInput, true).parse(tokens);
+        AstNode notCompiled = new RuleParser(grammar, fileInput, false).parse(tokens);
+        
+        assertThat(notCompiled.getTokens()).isEqualTo(compiled.getTokens());
+        assertThat(notCompiled.getDescendants(PlSqlGrammar.STATEMENT)).hasSameSizeAs(compiled.getDescendants(PlSqlGrammar.STATEMENT));
+        assertThat(notCompiled.getLastChild().getToIndex()).isEqualTo(compiled.getLastChild().getToIndex());
+    }
+    
+}
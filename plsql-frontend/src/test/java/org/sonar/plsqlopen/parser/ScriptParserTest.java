@@ -0,0 +1,112 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.sonar.plsqlopen.lexer.PlSqlLexer;
+import org.sonar.plsqlopen.squid.PlSqlConfiguration;
+import org.sonar.plugins.plsqlopen.api.DmlGrammar;
+import org.sonar.plugins.plsqlopen.api.PlSqlGrammar;
+
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.GenericTokenType;
+import com.sonar.sslr.api.Grammar;
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.impl.Parser;
+
+public class ScriptParserTest {
+
+    private final PlSqlConfiguration conf = new PlSqlConfiguration(StandardCharsets.UTF_8);
+    private final Parser<Grammar> parser = PlSqlParser.createScriptParser(conf);
+    
+    private static final String SCRIPT = String.join("\n",
+            "create or replace procedure foo is",
+            "begin",
+            "  x := 1",
+            "    / 2;",
+            "end;",
+            "/",
+            "select 1 from dual;",
+            "begin",
+            "  invalid invalid;",
+            "end;",
+            "/",
+            "");
+    
+    @Test
+    public void splitsAfterSlashAloneOnItsLine() {
+        List<Token> tokens = PlSqlLexer.create(conf).lex(SCRIPT);
+        
+        List<Integer> ends = ScriptParser.findUnitEnds(tokens);
+        
+        assertThat(ends).hasSize(2);
+        assertThat(tokens.get(ends.get(0) - 1).getLine()).isEqualTo(6);
+        assertThat(ends.get(1)).isEqualTo(tokens.size());
+    }
+    
+    @Test
+    public void joinsPartsInSingleTree() {
+        AstNode fileInput = parser.parse(SCRIPT);
+        
+        assertThat(fileInput.is(PlSqlGrammar.FILE_INPUT)).isTrue();
+        assertThat(fileInput.getChildren().stream().map(AstNode::getType).collect(Collectors.toList())).containsExactly(
+                PlSqlGrammar.COMPILATION_UNIT, PlSqlGrammar.EXECUTE_PLSQL_BUFFER,
+                DmlGrammar.DML_COMMAND, PlSqlGrammar.RECOVERY,
+                PlSqlGrammar.EXECUTE_PLSQL_BUFFER, GenericTokenType.EOF);
+        assertThat(fileInput.getChildren(GenericTokenType.EOF)).hasSize(1);
+        
+        AstNode select = fileInput.getChild(2);
+        assertThat(select.getParent()).isSameAs(fileInput);
+        assertThat(select.getTokenLine()).isEqualTo(7);
+        assertThat(select.getFromIndex()).isEqualTo(ScriptParser.findUnitEnds(PlSqlLexer.create(conf).lex(SCRIPT)).get(0));
+    }
+    
+    @Test
+    public void sameTreeAsWithoutSplitting() {
+        Parser<Grammar> unsplit = PlSqlParser.create(conf);
+        
+        assertThat(dump(parser.parse(SCRIPT))).isEqualTo(dump(unsplit.parse(SCRIPT)));
+    }
+    
+    private static String dump(AstNode node) {
+        StringBuilder builder = new StringBuilder();
+        dump(node, builder, 0);
+        return builder.toString();
+    }
+    
+    private static void dump(AstNode node, StringBuilder builder, int depth) {
+        builder.append(depth).append(' ').append(node.getName())
+            .append(' ').append(node.getFromIndex()).append(' ').append(node.getToIndex());
+        if (node.hasToken()) {
+            builder.append(' ').append(node.getTokenLine()).append(' ').append(node.getTokenValue());
+        }
+        builder.append('\n');
+        for (AstNode child : node.getChildren()) {
+            dump(child, builder, depth + 1);
+        }
+    }
+    
+}
@@ -68,6 +68,18 @@ public class PlSqlAstScannerTest {
       assertThat(file.getInt(PlSqlMetric.LINES_OF_CODE)).isEqualTo(4);
     }
     
+    @Test
+    public void withoutLineMetrics() {
+      PlSqlConfiguration conf = new PlSqlConfiguration(Charsets.UTF_8);
+      conf.setLineMetricsEnabled(false);
+      AstScanner<Grammar> scanner = PlSqlAstScanner.create(conf, components, noVisitors);
+      scanner.scanFile(new File("src/test/resources/metrics/lines_of_code.sql"));
+      SourceFile file = (SourceFile) scanner.getIndex().search(new QueryByType(SourceFile.class)).iterator().next();
+      assertThat(file.getInt(PlSqlMetric.LINES_OF_CODE)).isEqualTo(0);
+      assertThat(file.getInt(PlSqlMetric.COMMENT_LINES)).isEqualTo(0);
+      assertThat(file.getInt(PlSqlMetric.LINES)).isPositive();
+    }
+    
     @Test
     public void methods() {
       SourceFile file = PlSqlAstScanner.scanSingleFile(new File("src/test/resources/metrics/methods.sql"), components, noVisitors);
@@ -0,0 +1,156 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.squid;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.sonar.plsqlopen.parser.PlSqlParser;
+import org.sonar.plugins.plsqlopen.api.PlSqlGrammar;
+import org.sonar.plugins.plsqlopen.api.PlSqlKeyword;
+import org.sonar.plugins.plsqlopen.api.PlSqlTokenType;
+
+import com.google.common.base.Charsets;
+import com.sonar.sslr.api.AstAndTokenVisitor;
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.AstNodeType;
+import com.sonar.sslr.api.AstVisitor;
+import com.sonar.sslr.api.GenericTokenType;
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.impl.ast.AstWalker;
+
+public class PlSqlAstWalkerTest {
+
+    private static final String SOURCE = "begin\n  x := 1;\n  if x = 1 then\n    null;\n  end if;\nend;\n/\nselect 1 from dual;";
+    
+    @Test
+    public void shouldVisitLikeAstWalker() {
+        AstNode ast = PlSqlParser.create(new PlSqlConfiguration(Charsets.UTF_8)).parse(SOURCE);
+        
+        List<String> expected = new ArrayList<>();
+        new AstWalker(visitors(expected)).walkAndVisit(ast);
+        
+        List<String> actual = new ArrayList<>();
+        new PlSqlAstWalker(visitors(actual)).walkAndVisit(ast);
+        
+        assertThat(actual).isNotEmpty().isEqualTo(expected);
+    }
+    
+    @Test
+    public void shouldOnlyVisitSubscribedNodes() {
+        AstNode ast = PlSqlParser.create(new PlSqlConfiguration(Charsets.UTF_8)).parse(SOURCE);
+        
+        List<String> events = new ArrayList<>();
+        new PlSqlAstWalker(visitors(events)).walkAndVisit(ast);
+        
+        assertThat(events).contains("a:visitNode:IF_STATEMENT", "b:visitNode:IF_STATEMENT", "a:visitNode:NUMERIC_LITERAL");
+        assertThat(events).doesNotContain("b:visitNode:NUMERIC_LITERAL", "a:visitNode:BLOCK_STATEMENT");
+    }
+    
+    @Test
+    public void shouldOnlyVisitTheTokensOfRecoveredCode() {
+        AstNode ast = PlSqlParser.create(new PlSqlConfiguration(Charsets.UTF_8)).parse("begin x := ; end;\n/\nselect 1 from dual;");
+        assertThat(ast.hasDescendant(PlSqlGrammar.RECOVERY)).isTrue();
+        
+        List<String> expected = new ArrayList<>();
+        new AstWalker(new RecordingTokenVisitor("a", expected)).walkAndVisit(ast);
+        
+        List<String> events = new ArrayList<>();
+        new PlSqlAstWalker(Arrays.asList(
+                new RecordingTokenVisitor("a", events),
+                new RecordingVisitor("b", events, PlSqlGrammar.RECOVERY, PlSqlKeyword.END, PlSqlKeyword.SELECT))).walkAndVisit(ast);
+        
+        assertThat(events).filteredOn(event -> event.startsWith("a:")).isEqualTo(expected);
+        assertThat(events).contains("b:visitNode:RECOVERY", "b:leaveNode:RECOVERY", "b:visitNode:SELECT");
+        assertThat(events).doesNotContain("b:visitNode:END");
+    }
+    
+    private static List<AstVisitor> visitors(List<String> events) {
+        List<AstVisitor> visitors = new ArrayList<>();
+        visitors.add(new RecordingVisitor("a", events, PlSqlGrammar.IF_STATEMENT, PlSqlTokenType.INTEGER_LITERAL,
+                PlSqlGrammar.NUMERIC_LITERAL, PlSqlKeyword.END, GenericTokenType.EOF));
+        visitors.add(new RecordingTokenVisitor("b", events, PlSqlGrammar.IF_STATEMENT, PlSqlGrammar.STATEMENTS));
+        visitors.add(new RecordingVisitor("c", events));
+        return visitors;
+    }
+    
+    private static class RecordingVisitor implements AstVisitor {
+        
+        private final String name;
+        private final List<String> events;
+        private final List<AstNodeType> types = new ArrayList<>();
+        
+        RecordingVisitor(String name, List<String> events, AstNodeType... types) {
+            this.name = name;
+            this.events = events;
+            for (AstNodeType type : types) {
+                this.types.add(type);
+            }
+        }
+        
+        @Override
+        public List<AstNodeType> getAstNodeTypesToVisit() {
+            return types;
+        }
+        
+        @Override
+        public void visitFile(AstNode ast) {
+            events.add(name + ":visitFile");
+        }
+        
+        @Override
+        public void leaveFile(AstNode ast) {
+            events.add(name + ":leaveFile");
+        }
+        
+        @Override
+        public void visitNode(AstNode ast) {
+            events.add(name + ":visitNode:" + ast.getName());
+        }
+        
+        @Override
+        public void leaveNode(AstNode ast) {
+            events.add(name + ":leaveNode:" + ast.getName());
+        }
+        
+        void record(String event) {
+            events.add(name + ":" + event);
+        }
+        
+    }
+    
+    private static class RecordingTokenVisitor extends RecordingVisitor implements AstAndTokenVisitor {
+        
+        RecordingTokenVisitor(String name, List<String> events, AstNodeType... types) {
+            super(name, events, types);
+        }
+        
+        @Override
+        public void visitToken(Token token) {
+            record("visitToken:" + token.getLine() + ":" + token.getColumn());
+        }
+        
+    }
+    
+}
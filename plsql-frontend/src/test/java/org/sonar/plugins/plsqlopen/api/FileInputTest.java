@@ -0,0 +1,105 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.plsqlopen.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.AstNodeType;
+import com.sonar.sslr.api.GenericTokenType;
+
+public class FileInputTest extends RuleTest {
+
+    @Before
+    public void init() {
+        setRootRule(PlSqlGrammar.FILE_INPUT);
+    }
+    
+    @Test
+    public void skipsInvalidCommandUpToSemicolon() {
+        AstNode fileInput = p.parse(lines(
+                "select 1 from dual;",
+                "this is not valid;",
+                "commit;"));
+        
+        assertThat(childTypes(fileInput)).containsExactly(
+                DmlGrammar.DML_COMMAND, PlSqlGrammar.RECOVERY, TclGrammar.TCL_COMMAND, GenericTokenType.EOF);
+        AstNode recovery = fileInput.getFirstChild(PlSqlGrammar.RECOVERY);
+        assertThat(recovery.getTokenLine()).isEqualTo(2);
+        assertThat(recovery.getLastToken().getValue()).isEqualTo(";");
+    }
+    
+    @Test
+    public void skipsInvalidBlockUpToSlash() {
+        AstNode fileInput = p.parse(lines(
+                "create or replace procedure foo is",
+                "begin",
+                "  x := ;",
+                "  y := 1;",
+                "  commit;",
+                "end;",
+                "/",
+                "begin",
+                "  null;",
+                "end;",
+                "/"));
+        
+        assertThat(childTypes(fileInput)).containsExactly(
+                PlSqlGrammar.RECOVERY, PlSqlGrammar.EXECUTE_PLSQL_BUFFER,
+                PlSqlGrammar.COMPILATION_UNIT, PlSqlGrammar.EXECUTE_PLSQL_BUFFER, GenericTokenType.EOF);
+        AstNode recovery = fileInput.getFirstChild(PlSqlGrammar.RECOVERY);
+        assertThat(recovery.getTokenLine()).isEqualTo(1);
+        assertThat(recovery.getLastToken().getLine()).isEqualTo(6);
+    }
+    
+    @Test
+    public void divisionInsideBlockIsNotABoundary() {
+        AstNode fileInput = p.parse(lines(
+                "begin",
+                "  x := 1 /",
+                "    2 +;",
+                "end;",
+                "/"));
+        
+        assertThat(childTypes(fileInput)).containsExactly(
+                PlSqlGrammar.RECOVERY, PlSqlGrammar.EXECUTE_PLSQL_BUFFER, GenericTokenType.EOF);
+    }
+    
+    @Test
+    public void resynchronizesAtCreate() {
+        AstNode fileInput = p.parse(lines(
+                "create sequence s",
+                "create view v as select 1 from dual;"));
+        
+        assertThat(childTypes(fileInput)).containsExactly(
+                PlSqlGrammar.RECOVERY, PlSqlGrammar.COMPILATION_UNIT, GenericTokenType.EOF);
+    }
+    
+    private static List<AstNodeType> childTypes(AstNode node) {
+        return node.getChildren().stream().map(AstNode::getType).collect(Collectors.toList());
+    }
+    
+}
@@ -52,6 +52,12 @@ public class ScopeTest {
         assertThat(scope.getSymbols()).containsExactly(symbol1, symbol2);
     }
     
+    @Test(expected = UnsupportedOperationException.class)
+    public void symbolsCanOnlyBeAddedThroughTheScope() {
+        Scope scope = new Scope(null, null, false, false);
+        scope.getSymbols().add(createSymbol(scope, "foo", Kind.VARIABLE));
+    }
+    
     @Test
     public void getSymbolsByKind() {
         Scope scope = new Scope(null, null, false, false);
@@ -128,6 +134,24 @@ public class ScopeTest {
         assertThat(innerScope.getSymbol("baz")).isNull();
     }
     
+    @Test
+    public void getSymbolIgnoringCase() {
+        Scope outerScope = new Scope(null, null, false, false);
+        Symbol symbol1 = createSymbol(outerScope, "Foo", Kind.VARIABLE);
+        outerScope.addSymbol(symbol1);
+        
+        Scope innerScope = new Scope(outerScope, null, false, false);
+        Symbol symbol2 = createSymbol(innerScope, "foo", Kind.CURSOR);
+        innerScope.addSymbol(symbol2);
+        Symbol symbol3 = createSymbol(innerScope, "FOO", Kind.VARIABLE);
+        innerScope.addSymbol(symbol3);
+        
+        assertThat(innerScope.getSymbol("FOO")).isEqualTo(symbol2);
+        assertThat(innerScope.getSymbol("foo", Kind.VARIABLE, Kind.PARAMETER)).isEqualTo(symbol3);
+        assertThat(innerScope.getSymbolsAcessibleInScope("fOO")).containsExactly(symbol2, symbol3, symbol1);
+        assertThat(innerScope.getSymbolsAcessibleInScope("fOO", Kind.VARIABLE)).containsExactly(symbol3, symbol1);
+    }
+    
     private Symbol createSymbol(Scope scope, String name, Kind kind) {
         AstNode node = mock(AstNode.class);
         when(node.getTokenOriginalValue()).thenReturn(name);
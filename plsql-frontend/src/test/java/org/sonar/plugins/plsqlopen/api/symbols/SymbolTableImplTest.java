@@ -83,6 +83,18 @@ public class SymbolTableImplTest {
         assertThat(symbolTable.getSymbolFor(node2)).isNull();
     }
     
+    @Test
+    public void returnFirstSymbolDeclaredForNode() {
+        AstNode node = mock(AstNode.class);
+        Scope scope = new Scope(null, null, false, false);
+        
+        SymbolTableImpl symbolTable = new SymbolTableImpl();
+        Symbol symbol = symbolTable.declareSymbol(node, Kind.CURSOR, scope);
+        symbolTable.declareSymbol(node, Kind.VARIABLE, scope);
+        
+        assertThat(symbolTable.getSymbolFor(node)).isEqualTo(symbol);
+    }
+    
     @Test
     public void doNotReturnScopeForSymbolIfNotIdentified() {
         SymbolTableImpl symbolTable = new SymbolTableImpl();
@@ -73,6 +73,14 @@ public class SymbolTest {
         assertThat(symbol.hasModifier("bar")).isFalse();
     }
     
+    @Test
+    public void normalizedNamesFollowEqualsIgnoreCase() {
+        assertThat(Symbol.normalize("Foo_Bar$1")).isEqualTo(Symbol.normalize("FOO_bar$1"));
+        assertThat(Symbol.normalize("\u00e7\u00e3o")).isEqualTo(Symbol.normalize("\u00c7\u00c3O"));
+        assertThat(Symbol.normalize("\u0131")).isEqualTo(Symbol.normalize("I"));
+        assertThat(Symbol.normalize("foo")).isNotEqualTo(Symbol.normalize("fooo"));
+    }
+    
     private Symbol createSymbol(Scope scope, String name, Kind kind) {
         AstNode node = mock(AstNode.class);
         when(node.getTokenOriginalValue()).thenReturn(name);
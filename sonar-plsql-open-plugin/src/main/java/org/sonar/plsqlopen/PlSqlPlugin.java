@@ -20,6 +20,7 @@
 package org.sonar.plsqlopen;
 
 import org.sonar.api.Plugin;
+import org.sonar.api.PropertyType;
 import org.sonar.api.config.PropertyDefinition;
 import org.sonar.api.resources.Qualifiers;
 
@@ -27,6 +28,8 @@ public class PlSqlPlugin implements Plugin {
 
     public static final String FILE_SUFFIXES_KEY = "sonar.plsql.file.suffixes";
     public static final String FORMS_METADATA_KEY = "sonar.plsql.forms.metadata";
+    public static final String THREADS_KEY = "sonar.plsql.threads";
+    public static final String CACHE_KEY = "sonar.plsql.cache";
 
     @Override
     public void define(Context context) {
@@ -40,10 +43,29 @@ public class PlSqlPlugin implements Plugin {
                 .build(),
             PropertyDefinition.builder(FORMS_METADATA_KEY)
                 .name("Oracle Forms metadata file")
-                .description("Path to the JSON file with the Oracle Forms metadata.")
+                .description("Path to the JSON file with the Oracle Forms metadata, or to a directory with one JSON file per form. "
+                        + "A source file uses the metadata file named like the source file (up to its first dot) or like "
+                        + "the closest of its parent directories.")
                 .category("PL/SQL")
                 .onQualifiers(Qualifiers.PROJECT)
                 .build(),
+            PropertyDefinition.builder(THREADS_KEY)
+                .name("Analysis threads")
+                .description("Number of threads used to analyze the PL/SQL files. Use 1 to analyze the files sequentially.")
+                .category("PL/SQL")
+                .onQualifiers(Qualifiers.PROJECT)
+                .type(PropertyType.INTEGER)
+                .defaultValue("1")
+                .build(),
+            PropertyDefinition.builder(CACHE_KEY)
+                .name("Analysis cache")
+                .description("Keep the results of each file in the working directory, and reuse them in the next analysis if the file, "
+                        + "the plugin and the active rules didn't change.")
+                .category("PL/SQL")
+                .onQualifiers(Qualifiers.PROJECT)
+                .type(PropertyType.BOOLEAN)
+                .defaultValue("false")
+                .build(),
           
             PlSql.class,
             PlSqlProfile.class,
@@ -20,12 +20,23 @@
 package org.sonar.plsqlopen;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.annotation.Nullable;
 
+import org.sonar.api.batch.AnalysisMode;
 import org.sonar.api.batch.fs.FilePredicates;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.rule.CheckFactory;
@@ -33,12 +44,21 @@ import org.sonar.api.batch.sensor.Sensor;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.SensorDescriptor;
 import org.sonar.api.batch.sensor.cpd.NewCpdTokens;
+import org.sonar.api.batch.sensor.highlighting.NewHighlighting;
+import org.sonar.api.batch.sensor.symbol.NewSymbol;
+import org.sonar.api.batch.sensor.symbol.NewSymbolTable;
 import org.sonar.api.ce.measure.RangeDistributionBuilder;
 import org.sonar.api.config.Settings;
 import org.sonar.api.measures.CoreMetrics;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+import org.sonar.plsqlopen.AnalyzerMessage.TextSpan;
+import org.sonar.plsqlopen.cache.AnalysisCache;
+import org.sonar.plsqlopen.cache.CachedResults;
 import org.sonar.plsqlopen.checks.CheckList;
+import org.sonar.plsqlopen.checks.PlSqlCheck;
+import org.sonar.plsqlopen.cpd.PlSqlCpdVisitor;
 import org.sonar.plsqlopen.highlight.PlSqlHighlighterVisitor;
-import org.sonar.plsqlopen.lexer.PlSqlLexer;
 import org.sonar.plsqlopen.squid.PlSqlAstScanner;
 import org.sonar.plsqlopen.squid.PlSqlConfiguration;
 import org.sonar.plsqlopen.symbols.SymbolVisitor;
@@ -51,35 +71,44 @@ import org.sonar.squidbridge.api.SourceFunction;
 import org.sonar.squidbridge.indexer.QueryByParent;
 import org.sonar.squidbridge.indexer.QueryByType;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
-import com.sonar.sslr.api.GenericTokenType;
 import com.sonar.sslr.api.Grammar;
-import com.sonar.sslr.api.Token;
-import com.sonar.sslr.impl.Lexer;
 
 public class PlSqlSquidSensor implements Sensor {
 
+    private static final Logger LOG = Loggers.get(PlSqlSquidSensor.class);
+    
     private static final Number[] LIMITS_COMPLEXITY_METHODS = {5, 10, 20, 30, 60, 90, 100};
     private static final Number[] LIMITS_COMPLEXITY_FILES = {0, 5, 10, 20, 30, 60, 90};
     
     private final PlSqlChecks checks;
+    private final int threads;
+    private final boolean issuesMode;
+    private final boolean cacheEnabled;
+    private final String formsMetadataFile;
 
-    private AstScanner<Grammar> scanner;
     private SonarComponents components;
     private SensorContext context;
     private PlSqlConfiguration configuration;
+    private AnalysisCache cache;
+    private Map<File, InputFile> inputFiles;
     
-    public PlSqlSquidSensor(CheckFactory checkFactory, SonarComponents components, Settings settings) {
-        this(checkFactory, components, settings, null);
+    public PlSqlSquidSensor(CheckFactory checkFactory, SonarComponents components, Settings settings, AnalysisMode analysisMode) {
+        this(checkFactory, components, settings, analysisMode, null);
     }
 
-    public PlSqlSquidSensor(CheckFactory checkFactory, SonarComponents components, Settings settings,
+    public PlSqlSquidSensor(CheckFactory checkFactory, SonarComponents components, Settings settings, AnalysisMode analysisMode,
             @Nullable CustomPlSqlRulesDefinition[] customRulesDefinition) {
         this.checks = PlSqlChecks.createPlSqlCheck(checkFactory)
                 .addChecks(CheckList.REPOSITORY_KEY, CheckList.getChecks())
                 .addCustomChecks(customRulesDefinition);
         this.components = components;
-        this.components.loadMetadataFile(settings.getString(PlSqlPlugin.FORMS_METADATA_KEY));
+        this.formsMetadataFile = settings.getString(PlSqlPlugin.FORMS_METADATA_KEY);
+        this.components.loadMetadataFile(formsMetadataFile);
+        this.threads = settings.getInt(PlSqlPlugin.THREADS_KEY);
+        this.issuesMode = analysisMode.isIssues() || analysisMode.isPreview();
+        this.cacheEnabled = settings.getBoolean(PlSqlPlugin.CACHE_KEY);
         components.setChecks(checks);
     }
     
@@ -93,107 +122,281 @@ public class PlSqlSquidSensor implements Sensor {
     @Override
     public void execute(SensorContext context) {
         this.context = context;
-        List<SquidAstVisitor<Grammar>> visitors = new ArrayList<>();
-        visitors.add(new SymbolVisitor());
-        visitors.add(new PlSqlHighlighterVisitor(context));
-        visitors.addAll(checks.all());
         configuration = new PlSqlConfiguration(context.fileSystem().encoding());
+        // the lines of code and the comment lines are counted token by token, and the measures aren't kept in issues mode
+        configuration.setLineMetricsEnabled(!issuesMode);
         
-        this.scanner = PlSqlAstScanner.create(configuration, components, visitors);
         FilePredicates p = context.fileSystem().predicates();
-        scanner.scanFiles(Lists.newArrayList(context.fileSystem().files(p.and(p.hasType(InputFile.Type.MAIN), p.hasLanguage(PlSql.KEY)))));
+        inputFiles = new LinkedHashMap<>();
+        for (InputFile inputFile : context.fileSystem().inputFiles(p.and(p.hasType(InputFile.Type.MAIN), p.hasLanguage(PlSql.KEY)))) {
+            inputFiles.put(inputFile.file(), inputFile);
+        }
+        List<File> files = Lists.newArrayList(inputFiles.keySet());
+        
+        cache = createCache();
+        components.setCache(cache);
+        if (cache != null) {
+            files = replayUnchangedFiles(files);
+        }
+        
+        List<AstScanner<Grammar>> scanners;
+        int workers = Math.min(threads, files.size());
+        if (workers > 1) {
+            scanners = scanInParallel(files, workers);
+        } else {
+            AstScanner<Grammar> scanner = createScanner(checks.all());
+            scanner.scanFiles(files);
+            scanners = Lists.newArrayList(scanner);
+        }
 
-        Collection<SourceCode> squidSourceFiles = scanner.getIndex().search(new QueryByType(SourceFile.class));
-        save(squidSourceFiles);
+        for (AstScanner<Grammar> scanner : scanners) {
+            save(scanner);
+        }
+        
+        if (cache != null) {
+            cache.save();
+        }
+    }
+    
+    @Nullable
+    private AnalysisCache createCache() {
+        if (!cacheEnabled) {
+            return null;
+        }
+        
+        String fingerprint = AnalysisCache.versionOf(PlSqlSquidSensor.class) + "\n" 
+                + configuration.getCharset() + "\n"
+                + issuesMode + "\n"
+                + formsMetadataFingerprint() + "\n"
+                + checks.fingerprint();
+        return new AnalysisCache(new File(context.fileSystem().workDir(), "plsql-cache"), context.fileSystem().baseDir(), fingerprint);
+    }
+    
+    private String formsMetadataFingerprint() {
+        if (Strings.isNullOrEmpty(formsMetadataFile) || !components.hasFormsMetadata()) {
+            return "";
+        }
+        File metadata = new File(formsMetadataFile);
+        File[] metadataFiles = metadata.isDirectory()
+                ? metadata.listFiles((dir, name) -> name.toLowerCase(Locale.ENGLISH).endsWith(".json"))
+                : new File[] { metadata };
+        if (metadataFiles == null) {
+            return "";
+        }
+        Arrays.sort(metadataFiles);
+        
+        // the forms are only read when a source file uses them, so their content isn't hashed here
+        StringBuilder fingerprint = new StringBuilder();
+        for (File file : metadataFiles) {
+            fingerprint.append(file.getName()).append(':')
+                .append(file.length()).append(':')
+                .append(file.lastModified()).append('\n');
+        }
+        return AnalysisCache.hash(fingerprint.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private List<File> replayUnchangedFiles(List<File> files) {
+        List<File> changedFiles = new ArrayList<>();
+        for (File file : files) {
+            CachedResults results = cache.load(file);
+            if (results != null) {
+                replay(inputFiles.get(file), results);
+            } else {
+                changedFiles.add(file);
+            }
+        }
+        LOG.info("{} of {} files are unchanged since the previous analysis", files.size() - changedFiles.size(), files.size());
+        return changedFiles;
+    }
+    
+    private void replay(InputFile inputFile, CachedResults results) {
+        for (CachedResults.Issue issue : results.getIssues()) {
+            components.reportIssue(inputFile, issue.getRuleKey(), issue.toMessage());
+        }
+        
+        saveMeasures(inputFile, results);
+        
+        NewSymbolTable symbolizable = components.symbolizableFor(inputFile);
+        if (symbolizable != null) {
+            for (CachedResults.Symbol symbol : results.getSymbols()) {
+                TextSpan declaration = symbol.declaration;
+                NewSymbol newSymbol = symbolizable.newSymbol(declaration.startLine, declaration.startCharacter,
+                        declaration.endLine, declaration.endCharacter);
+                for (TextSpan reference : symbol.references) {
+                    newSymbol.newReference(reference.startLine, reference.startCharacter, reference.endLine, reference.endCharacter);
+                }
+            }
+            components.save(symbolizable);
+        }
+        
+        if (!issuesMode) {
+            NewHighlighting highlighting = context.newHighlighting().onFile(inputFile);
+            for (CachedResults.Highlighting highlight : results.getHighlightings()) {
+                TextSpan location = highlight.location;
+                highlighting.highlight(location.startLine, location.startCharacter, location.endLine, location.endCharacter, highlight.type);
+            }
+            highlighting.save();
+            
+            NewCpdTokens cpdTokens = context.newCpdTokens().onFile(inputFile);
+            for (CachedResults.CpdToken token : results.getCpdTokens()) {
+                TextSpan location = token.location;
+                cpdTokens.addToken(location.startLine, location.startCharacter, location.endLine, location.endCharacter, token.value);
+            }
+            cpdTokens.save();
+        }
+    }
+    
+    private AstScanner<Grammar> createScanner(List<PlSqlCheck> checkInstances) {
+        List<SquidAstVisitor<Grammar>> visitors = new ArrayList<>();
+        visitors.add(new SymbolVisitor(cache));
+        if (!issuesMode) {
+            // the highlighting and the duplications are only kept when the analysis is published
+            visitors.add(new PlSqlHighlighterVisitor(context, cache));
+            visitors.add(new PlSqlCpdVisitor(context, configuration, cache));
+        }
+        visitors.addAll(checkInstances);
+        return PlSqlAstScanner.create(configuration, components, visitors);
+    }
+    
+    private List<AstScanner<Grammar>> scanInParallel(List<File> files, int workers) {
+        LOG.info("Analyzing {} files using {} threads", files.size(), workers);
+        
+        // each worker has its own parser, visitor context and check instances
+        List<List<File>> partitions = partition(files, workers);
+        List<AstScanner<Grammar>> scanners = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            scanners.add(createScanner(checks.newInstances()));
+        }
+        
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                AstScanner<Grammar> scanner = scanners.get(i);
+                List<File> partition = partitions.get(i);
+                results.add(executor.submit(() -> scanner.scanFiles(partition)));
+            }
+            for (Future<?> result : results) {
+                waitFor(result);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        return scanners;
+    }
+    
+    private static List<List<File>> partition(List<File> files, int workers) {
+        List<List<File>> partitions = new ArrayList<>();
+        long[] sizes = new long[workers];
+        for (int i = 0; i < workers; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        
+        // assign the largest files first, always to the worker with less work
+        List<File> sortedFiles = new ArrayList<>(files);
+        sortedFiles.sort(Comparator.comparingLong(File::length).reversed());
+        for (File file : sortedFiles) {
+            int worker = 0;
+            for (int i = 1; i < workers; i++) {
+                if (sizes[i] < sizes[worker]) {
+                    worker = i;
+                }
+            }
+            partitions.get(worker).add(file);
+            sizes[worker] += file.length();
+        }
+        return partitions;
+    }
+    
+    private static void waitFor(Future<?> result) {
+        try {
+            result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The analysis was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
     }
 
-    private void save(Collection<SourceCode> squidSourceFiles) {
+    private void save(AstScanner<Grammar> scanner) {
+        Collection<SourceCode> squidSourceFiles = scanner.getIndex().search(new QueryByType(SourceFile.class));
         for (SourceCode squidSourceFile : squidSourceFiles) {
             SourceFile squidFile = (SourceFile) squidSourceFile;
 
-            InputFile inputFile = context.fileSystem().inputFile(context.fileSystem().predicates()
-                    .is(new File(squidFile.getKey())));
+            InputFile inputFile = inputFiles.get(new File(squidFile.getKey()));
 
             if (inputFile != null) {
-                saveFilesComplexityDistribution(inputFile, squidFile);
-                saveFunctionsComplexityDistribution(inputFile, squidFile);
-                saveMeasures(inputFile, squidFile);
-                saveCpdTokens(inputFile);
+                CachedResults results = cache != null ? cache.record(inputFile.file()) : new CachedResults();
+                for (PlSqlMetric metric : PlSqlMetric.values()) {
+                    results.setMeasure(metric, squidFile.getInt(metric));
+                }
+                Collection<SourceCode> squidFunctionsInFile = scanner.getIndex().search(new QueryByParent(squidFile),
+                        new QueryByType(SourceFunction.class));
+                for (SourceCode squidFunction : squidFunctionsInFile) {
+                    results.addFunctionComplexity(squidFunction.getDouble(PlSqlMetric.COMPLEXITY));
+                }
+                
+                saveMeasures(inputFile, results);
             }
         }
     }
 
-    private void saveMeasures(InputFile sonarFile, SourceFile squidFile) {
+    private void saveMeasures(InputFile sonarFile, CachedResults results) {
         context.<Integer>newMeasure()
                 .on(sonarFile)
                 .forMetric(CoreMetrics.FILES)
-                .withValue(squidFile.getInt(PlSqlMetric.FILES))
-                .save();
-        
-        context.<Integer>newMeasure().on(sonarFile)
-                .forMetric(CoreMetrics.NCLOC)
-                .withValue(squidFile.getInt(PlSqlMetric.LINES_OF_CODE))
+                .withValue(results.getMeasure(PlSqlMetric.FILES))
                 .save();
         
-        context.<Integer>newMeasure().on(sonarFile)
-                .forMetric(CoreMetrics.COMMENT_LINES)
-                .withValue(squidFile.getInt(PlSqlMetric.COMMENT_LINES))
-                .save();
+        if (!issuesMode) {
+            context.<Integer>newMeasure().on(sonarFile)
+                    .forMetric(CoreMetrics.NCLOC)
+                    .withValue(results.getMeasure(PlSqlMetric.LINES_OF_CODE))
+                    .save();
+            
+            context.<Integer>newMeasure().on(sonarFile)
+                    .forMetric(CoreMetrics.COMMENT_LINES)
+                    .withValue(results.getMeasure(PlSqlMetric.COMMENT_LINES))
+                    .save();
+        }
         
         context.<Integer>newMeasure().on(sonarFile)
                 .forMetric(CoreMetrics.COMPLEXITY)
-                .withValue(squidFile.getInt(PlSqlMetric.COMPLEXITY))
+                .withValue(results.getMeasure(PlSqlMetric.COMPLEXITY))
                 .save();
         
         context.<Integer>newMeasure().on(sonarFile)
                 .forMetric(CoreMetrics.FUNCTIONS)
-                .withValue(squidFile.getInt(PlSqlMetric.METHODS))
+                .withValue(results.getMeasure(PlSqlMetric.METHODS))
                 .save();
         
         context.<Integer>newMeasure().on(sonarFile)
                 .forMetric(CoreMetrics.STATEMENTS)
-                .withValue(squidFile.getInt(PlSqlMetric.STATEMENTS))
+                .withValue(results.getMeasure(PlSqlMetric.STATEMENTS))
                 .save();
-    }
-    
-    private void saveFunctionsComplexityDistribution(InputFile sonarFile, SourceFile squidFile) {
-        Collection<SourceCode> squidFunctionsInFile = scanner.getIndex().search(new QueryByParent(squidFile),
-                new QueryByType(SourceFunction.class));
-        RangeDistributionBuilder complexityDistribution = new RangeDistributionBuilder(LIMITS_COMPLEXITY_METHODS);
-        for (SourceCode squidFunction : squidFunctionsInFile) {
-            complexityDistribution.add(squidFunction.getDouble(PlSqlMetric.COMPLEXITY));
-        }
         
+        RangeDistributionBuilder fileComplexityDistribution = new RangeDistributionBuilder(LIMITS_COMPLEXITY_FILES);
+        fileComplexityDistribution.add((double) results.getMeasure(PlSqlMetric.COMPLEXITY));
         context.<String>newMeasure().on(sonarFile)
-                .forMetric(CoreMetrics.FUNCTION_COMPLEXITY_DISTRIBUTION)
-                .withValue(complexityDistribution.build())
+                .forMetric(CoreMetrics.FILE_COMPLEXITY_DISTRIBUTION)
+                .withValue(fileComplexityDistribution.build())
                 .save();
-    }
-
-    private void saveFilesComplexityDistribution(InputFile sonarFile, SourceFile squidFile) {
-        RangeDistributionBuilder complexityDistribution = new RangeDistributionBuilder(LIMITS_COMPLEXITY_FILES);
-        complexityDistribution.add(squidFile.getDouble(PlSqlMetric.COMPLEXITY));
+        
+        RangeDistributionBuilder functionComplexityDistribution = new RangeDistributionBuilder(LIMITS_COMPLEXITY_METHODS);
+        for (Double complexity : results.getFunctionComplexities()) {
+            functionComplexityDistribution.add(complexity);
+        }
         context.<String>newMeasure().on(sonarFile)
-                .forMetric(CoreMetrics.FILE_COMPLEXITY_DISTRIBUTION)
-                .withValue(complexityDistribution.build())
+                .forMetric(CoreMetrics.FUNCTION_COMPLEXITY_DISTRIBUTION)
+                .withValue(functionComplexityDistribution.build())
                 .save();
     }
     
-    private void saveCpdTokens(InputFile inputFile) {
-        NewCpdTokens newCpdTokens = context.newCpdTokens().onFile(inputFile);
-        Lexer lexer = PlSqlLexer.create(configuration);
-        String fileName = inputFile.absolutePath();
-        List<Token> tokens = lexer.lex(new File(fileName));
-        for (Token token : tokens) {
-            if (token.getType() == GenericTokenType.EOF) {
-                continue;
-            }
-            TokenLocation location = TokenLocation.from(token);
-            newCpdTokens.addToken(location.line(), location.column(), location.endLine(), location.endColumn(), token.getValue());
-        }
-        newCpdTokens.save();
-    }
-
     @Override
     public String toString() {
         return getClass().getSimpleName();
@@ -0,0 +1,97 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.cpd;
+
+import javax.annotation.Nullable;
+
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.batch.sensor.cpd.NewCpdTokens;
+import org.sonar.plsqlopen.TokenLocation;
+import org.sonar.plsqlopen.cache.AnalysisCache;
+import org.sonar.plsqlopen.cache.CachedResults;
+import org.sonar.plsqlopen.checks.PlSqlCheck;
+import org.sonar.plsqlopen.lexer.PlSqlLexer;
+import org.sonar.plsqlopen.squid.PlSqlConfiguration;
+
+import com.sonar.sslr.api.AstAndTokenVisitor;
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.GenericTokenType;
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.impl.Lexer;
+
+public class PlSqlCpdVisitor extends PlSqlCheck implements AstAndTokenVisitor {
+
+    private SensorContext context;
+    private PlSqlConfiguration configuration;
+    private AnalysisCache cache;
+    private Lexer lexer;
+    private NewCpdTokens cpdTokens;
+    private CachedResults results;
+
+    public PlSqlCpdVisitor(SensorContext context, PlSqlConfiguration configuration) {
+        this(context, configuration, null);
+    }
+    
+    public PlSqlCpdVisitor(SensorContext context, PlSqlConfiguration configuration, @Nullable AnalysisCache cache) {
+        this.context = context;
+        this.configuration = configuration;
+        this.cache = cache;
+    }
+    
+    @Override
+    public void visitFile(AstNode astNode) {
+        cpdTokens = context.newCpdTokens().onFile(getPlSqlContext().getInputFile());
+        results = cache != null ? cache.record(getContext().getFile()) : null;
+    }
+    
+    @Override
+    public void leaveFile(AstNode astNode) {
+        if (astNode == null) {
+            // the tokens of a file that couldn't be parsed aren't visited
+            for (Token token : lexer().lex(getContext().getFile())) {
+                visitToken(token);
+            }
+        }
+        
+        // the sensor context isn't thread-safe and the files may be analyzed in parallel
+        synchronized (context) {
+            cpdTokens.save();
+        }
+    }
+    
+    @Override
+    public void visitToken(Token token) {
+        if (token.getType() != GenericTokenType.EOF) {
+            TokenLocation location = TokenLocation.from(token);
+            cpdTokens.addToken(location.line(), location.column(), location.endLine(), location.endColumn(), token.getValue());
+            if (results != null) {
+                results.addCpdToken(location.line(), location.column(), location.endLine(), location.endColumn(), token.getValue());
+            }
+        }
+    }
+    
+    private Lexer lexer() {
+        if (lexer == null) {
+            lexer = PlSqlLexer.create(configuration);
+        }
+        return lexer;
+    }
+
+}
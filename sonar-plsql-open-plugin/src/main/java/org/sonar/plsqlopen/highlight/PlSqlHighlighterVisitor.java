@@ -19,11 +19,17 @@
  */
 package org.sonar.plsqlopen.highlight;
 
-import org.sonar.api.batch.fs.InputFile;
+import java.util.EnumSet;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.highlighting.NewHighlighting;
 import org.sonar.api.batch.sensor.highlighting.TypeOfText;
 import org.sonar.plsqlopen.TokenLocation;
+import org.sonar.plsqlopen.cache.AnalysisCache;
+import org.sonar.plsqlopen.cache.CachedResults;
 import org.sonar.plsqlopen.checks.PlSqlCheck;
 import org.sonar.plugins.plsqlopen.api.PlSqlKeyword;
 import org.sonar.plugins.plsqlopen.api.PlSqlTokenType;
@@ -36,23 +42,35 @@ import com.sonar.sslr.api.Trivia;
 
 public class PlSqlHighlighterVisitor extends PlSqlCheck implements AstAndTokenVisitor {
 
+    private static final Set<PlSqlTokenType> LITERALS = EnumSet.allOf(PlSqlTokenType.class);
+    private static final Set<PlSqlKeyword> KEYWORDS = EnumSet.allOf(PlSqlKeyword.class);
+
     private SensorContext context;
+    private AnalysisCache cache;
     private NewHighlighting highlighting;
+    private CachedResults results;
 
     public PlSqlHighlighterVisitor(SensorContext context) {
+        this(context, null);
+    }
+    
+    public PlSqlHighlighterVisitor(SensorContext context, @Nullable AnalysisCache cache) {
         this.context = context;
+        this.cache = cache;
     }
     
     @Override
     public void visitFile(AstNode astNode) {
-        InputFile inputFile = context.fileSystem().inputFile(context.fileSystem().predicates()
-                .is(getContext().getFile()));
-        highlighting = context.newHighlighting().onFile(inputFile);
+        highlighting = context.newHighlighting().onFile(getPlSqlContext().getInputFile());
+        results = cache != null ? cache.record(getContext().getFile()) : null;
     }
     
     @Override
     public void leaveFile(AstNode astNode) {
-        highlighting.save();
+        // the sensor context isn't thread-safe and the files may be analyzed in parallel
+        synchronized (context) {
+            highlighting.save();
+        }
     }
     
     @Override
@@ -67,35 +85,34 @@ public class PlSqlHighlighterVisitor extends PlSqlCheck implements AstAndTokenVi
             highlight(trivia.getToken(), code);
         }
         
-        if (isLiteral(token.getType())) {
+        TokenType type = token.getType();
+        if (isLiteral(type)) {
             highlight(token, TypeOfText.STRING);
-        }
-        if (isKeyword(token.getType())) {
-            highlight(token, TypeOfText.KEYWORD);
+        } else if (isKeyword(type)) {
+            // keywords never span lines, so the end position doesn't need a scan of the value
+            int endColumn = token.getColumn() + token.getValue().length();
+            highlight(token.getLine(), token.getColumn(), token.getLine(), endColumn, TypeOfText.KEYWORD);
         }
     }
     
     private void highlight(Token token, TypeOfText code) {
-        TokenLocation location = TokenLocation.from(token);
-        highlighting.highlight(location.line(), location.column(), location.endLine(), location.endColumn(), code);
+        int endLine = token.getLine() + TokenLocation.lineBreaks(token.getValue());
+        highlight(token.getLine(), token.getColumn(), endLine, TokenLocation.endColumn(token), code);
     }
     
-    public boolean isLiteral(TokenType type) {
-        for (TokenType literalType : PlSqlTokenType.values()) {
-            if (literalType.equals(type)) {
-                return true;
-            }
+    private void highlight(int line, int column, int endLine, int endColumn, TypeOfText code) {
+        highlighting.highlight(line, column, endLine, endColumn, code);
+        if (results != null) {
+            results.addHighlighting(line, column, endLine, endColumn, code);
         }
-        return false;
+    }
+    
+    public boolean isLiteral(TokenType type) {
+        return LITERALS.contains(type);
     }
     
     public boolean isKeyword(TokenType type) {
-        for (TokenType keywordType : PlSqlKeyword.values()) {
-            if (keywordType.equals(type)) {
-                return true;
-            }
-        }
-        return false;
+        return KEYWORDS.contains(type);
     }
 
 }
@@ -34,7 +34,7 @@ public class PlSqlPluginTest {
         Plugin.Context context = new Plugin.Context(SonarQubeVersion.V5_6);
         PlSqlPlugin plugin = new PlSqlPlugin();
         plugin.define(context);
-        assertThat(context.getExtensions()).hasSize(7);
+        assertThat(context.getExtensions()).hasSize(9);
     }
     
 }
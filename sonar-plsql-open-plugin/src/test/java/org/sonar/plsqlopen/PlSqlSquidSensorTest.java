@@ -20,29 +20,36 @@
 package org.sonar.plsqlopen;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.mock;
 
 import java.io.File;
 import java.io.IOException;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.sonar.api.batch.fs.internal.DefaultInputFile;
 import org.sonar.api.batch.rule.ActiveRules;
 import org.sonar.api.batch.rule.CheckFactory;
 import org.sonar.api.batch.rule.internal.ActiveRulesBuilder;
+import org.sonar.api.batch.sensor.highlighting.TypeOfText;
 import org.sonar.api.batch.sensor.internal.DefaultSensorDescriptor;
+import org.sonar.api.batch.sensor.internal.MockAnalysisMode;
 import org.sonar.api.batch.sensor.internal.SensorContextTester;
 import org.sonar.api.config.Settings;
 import org.sonar.api.measures.CoreMetrics;
 import org.sonar.api.rule.RuleKey;
 import org.sonar.plsqlopen.checks.CheckList;
+import org.sonar.plsqlopen.checks.InvalidReferenceToObjectCheck;
 
 import com.google.common.base.Charsets;
 import com.google.common.io.Files;
 
 public class PlSqlSquidSensorTest {
 
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+    
     private PlSqlSquidSensor sensor;
     private SensorContextTester context;
     
@@ -54,9 +61,9 @@ public class PlSqlSquidSensorTest {
                 .activate()
                 .build();
         CheckFactory checkFactory = new CheckFactory(activeRules);
-        SonarComponents components = mock(SonarComponents.class);
         context = SensorContextTester.create(new File("."));
-        sensor = new PlSqlSquidSensor(checkFactory, components, new Settings());
+        SonarComponents components = new SonarComponents(context);
+        sensor = new PlSqlSquidSensor(checkFactory, components, new Settings(), new MockAnalysisMode());
     }
     
     @Test
@@ -88,4 +95,121 @@ public class PlSqlSquidSensorTest {
 
     }
     
+    @Test
+    public void shouldAnalyseInParallel() throws IOException {
+      Settings settings = new Settings();
+      settings.setProperty(PlSqlPlugin.THREADS_KEY, 2);
+      sensor = new PlSqlSquidSensor(new CheckFactory(new ActiveRulesBuilder().build()), new SonarComponents(context), settings, new MockAnalysisMode());
+      
+      String relativePath = "src/test/resources/org/sonar/plsqlopen/code.sql";
+      DefaultInputFile inputFile = new DefaultInputFile("key", relativePath).setLanguage(PlSql.KEY)
+              .initMetadata(Files.toString(new File(relativePath), Charsets.UTF_8));
+      String otherRelativePath = "src/test/resources/org/sonar/plsqlopen/highlight.sql";
+      DefaultInputFile otherInputFile = new DefaultInputFile("key", otherRelativePath).setLanguage(PlSql.KEY)
+              .initMetadata(Files.toString(new File(otherRelativePath), Charsets.UTF_8));
+      
+      context.fileSystem().add(inputFile);
+      context.fileSystem().add(otherInputFile);
+      
+      sensor.execute(context);
+      
+      String key = "key:" + relativePath;
+
+      assertThat(context.measure(key, CoreMetrics.FILES).value()).isEqualTo(1);
+      assertThat(context.measure(key, CoreMetrics.NCLOC).value()).isEqualTo(18);
+      assertThat(context.measure(key, CoreMetrics.COMMENT_LINES).value()).isEqualTo(2);
+      assertThat(context.measure(key, CoreMetrics.COMPLEXITY).value()).isEqualTo(6);
+      assertThat(context.measure(key, CoreMetrics.FUNCTIONS).value()).isEqualTo(2);
+      assertThat(context.measure(key, CoreMetrics.STATEMENTS).value()).isEqualTo(8);
+      assertThat(context.measure("key:" + otherRelativePath, CoreMetrics.FILES).value()).isEqualTo(1);
+    }
+    
+    @Test
+    public void shouldNotHighlightInIssuesMode() throws IOException {
+      MockAnalysisMode analysisMode = new MockAnalysisMode();
+      analysisMode.setPreviewOrIssue(true);
+      sensor = new PlSqlSquidSensor(new CheckFactory(new ActiveRulesBuilder().build()), new SonarComponents(context), new Settings(), analysisMode);
+      
+      String relativePath = "src/test/resources/org/sonar/plsqlopen/highlight.sql";
+      DefaultInputFile inputFile = new DefaultInputFile("key", relativePath).setLanguage(PlSql.KEY)
+              .initMetadata(Files.toString(new File(relativePath), Charsets.UTF_8));
+      
+      context.fileSystem().add(inputFile);
+      
+      sensor.execute(context);
+      
+      String key = "key:" + relativePath;
+      
+      assertThat(context.measure(key, CoreMetrics.FILES).value()).isEqualTo(1);
+      assertThat(context.measure(key, CoreMetrics.NCLOC)).isNull();
+      assertThat(context.highlightingTypeAt(key, 1, 0)).isEmpty();
+      assertThat(context.cpdTokens(key)).isNull();
+    }
+    
+    @Test
+    public void shouldReplayUnchangedFilesFromCache() throws IOException {
+      Settings settings = new Settings();
+      settings.setProperty(PlSqlPlugin.CACHE_KEY, true);
+      File workDir = temp.newFolder();
+      String relativePath = "src/test/resources/org/sonar/plsqlopen/code.sql";
+      String key = "key:" + relativePath;
+      
+      for (int i = 0; i < 2; i++) {
+        context = SensorContextTester.create(new File("."));
+        context.fileSystem().setWorkDir(workDir);
+        context.fileSystem().add(new DefaultInputFile("key", relativePath).setLanguage(PlSql.KEY)
+                .initMetadata(Files.toString(new File(relativePath), Charsets.UTF_8)));
+        
+        sensor = new PlSqlSquidSensor(new CheckFactory(new ActiveRulesBuilder().build()), new SonarComponents(context), settings, new MockAnalysisMode());
+        sensor.execute(context);
+        
+        assertThat(context.measure(key, CoreMetrics.NCLOC).value()).isEqualTo(18);
+        assertThat(context.measure(key, CoreMetrics.COMPLEXITY).value()).isEqualTo(6);
+        assertThat(context.measure(key, CoreMetrics.FILE_COMPLEXITY_DISTRIBUTION).value()).isEqualTo("0=0;5=1;10=0;20=0;30=0;60=0;90=0");
+        assertThat(context.highlightingTypeAt(key, 1, 0)).containsExactly(TypeOfText.KEYWORD);
+        assertThat(context.cpdTokens(key)).isNotEmpty();
+      }
+      assertThat(new File(workDir, "plsql-cache").list()).hasSize(1);
+    }
+    
+    @Test
+    public void shouldNotShareTheCachedResultsOfIdenticalFilesOfTwoForms() throws IOException {
+      File baseDir = temp.newFolder();
+      File metadataDir = new File(baseDir, "metadata");
+      metadataDir.mkdir();
+      Files.write("{\"blocks\": [{\"name\": \"blk\", \"items\": [\"item\"]}]}", new File(metadataDir, "FORM_A.json"), Charsets.UTF_8);
+      Files.write("{\"blocks\": []}", new File(metadataDir, "FORM_B.json"), Charsets.UTF_8);
+      
+      String content = "begin\n  go_item('blk.item');\nend;";
+      for (String form : new String[] {"form_a", "form_b"}) {
+        File formDir = new File(baseDir, form);
+        formDir.mkdir();
+        Files.write(content, new File(formDir, "code.sql"), Charsets.UTF_8);
+      }
+      
+      Settings settings = new Settings();
+      settings.setProperty(PlSqlPlugin.CACHE_KEY, true);
+      settings.setProperty(PlSqlPlugin.FORMS_METADATA_KEY, metadataDir.getAbsolutePath());
+      ActiveRules activeRules = new ActiveRulesBuilder()
+              .create(RuleKey.of(CheckList.REPOSITORY_KEY, InvalidReferenceToObjectCheck.CHECK_KEY))
+              .activate()
+              .build();
+      File workDir = temp.newFolder();
+      
+      // the second analysis replays the results of the first one
+      for (int i = 0; i < 2; i++) {
+        context = SensorContextTester.create(baseDir);
+        context.fileSystem().setWorkDir(workDir);
+        context.fileSystem().add(new DefaultInputFile("key", "form_a/code.sql").setLanguage(PlSql.KEY).initMetadata(content));
+        context.fileSystem().add(new DefaultInputFile("key", "form_b/code.sql").setLanguage(PlSql.KEY).initMetadata(content));
+        
+        sensor = new PlSqlSquidSensor(new CheckFactory(activeRules), new SonarComponents(context), settings, new MockAnalysisMode());
+        sensor.execute(context);
+        
+        assertThat(context.allIssues()).hasSize(1);
+        assertThat(context.allIssues().iterator().next().primaryLocation().inputComponent().key()).isEqualTo("key:form_b/code.sql");
+      }
+      assertThat(new File(workDir, "plsql-cache").list()).hasSize(2);
+    }
+    
 }
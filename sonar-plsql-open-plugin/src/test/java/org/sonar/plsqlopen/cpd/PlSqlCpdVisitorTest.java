@@ -0,0 +1,82 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.cpd;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.api.batch.fs.internal.DefaultInputFile;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+import org.sonar.duplications.internal.pmd.TokensLine;
+import org.sonar.plsqlopen.SonarComponents;
+import org.sonar.plsqlopen.squid.PlSqlAstScanner;
+import org.sonar.plsqlopen.squid.PlSqlConfiguration;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+public class PlSqlCpdVisitorTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+    
+    @Test
+    public void shouldSaveTokensOfParsedFile() throws IOException {
+        List<TokensLine> lines = analyze("begin\n  x := 1;\nend;");
+        
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0).getValue()).isEqualTo("BEGIN");
+        assertThat(lines.get(1).getValue()).isEqualTo("X:=1;");
+        assertThat(lines.get(2).getValue()).isEqualTo("END;");
+    }
+    
+    @Test
+    public void shouldSaveTokensOfFileWithParsingError() throws IOException {
+        List<TokensLine> lines = analyze("begin\n  x := ;\nend");
+        
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(1).getValue()).isEqualTo("X:=;");
+    }
+    
+    private List<TokensLine> analyze(String content) throws IOException {
+        File baseDir = temp.newFolder();
+        File file = new File(baseDir, "test.sql");
+        Files.write(content, file, Charsets.UTF_8);
+        
+        DefaultInputFile inputFile = new DefaultInputFile("key", "test.sql").setLanguage("plsqlopen")
+                .initMetadata(content);
+        
+        SensorContextTester context = SensorContextTester.create(baseDir);
+        context.fileSystem().add(inputFile);
+        SonarComponents components = new SonarComponents(context).getTestInstance();
+
+        PlSqlCpdVisitor visitor = new PlSqlCpdVisitor(context, new PlSqlConfiguration(Charsets.UTF_8));
+        
+        PlSqlAstScanner.scanSingleFile(inputFile.file(), components, visitor);
+        
+        return context.cpdTokens("key:test.sql");
+    }
+}
@@ -84,6 +84,15 @@ public class PlSqlHighlighterVisitorTest {
         assertThat(context.highlightingTypeAt(key, 3, lineOffset(3))).containsExactly(TypeOfText.STRUCTURED_COMMENT);
         assertThat(context.highlightingTypeAt(key, 6, lineOffset(8))).containsExactly(TypeOfText.STRING);
         assertThat(context.highlightingTypeAt(key, 7, lineOffset(1))).containsExactly(TypeOfText.KEYWORD);
+        
+        // "begin" and "end" are highlighted up to their last character
+        assertThat(context.highlightingTypeAt(key, 1, lineOffset(5))).containsExactly(TypeOfText.KEYWORD);
+        assertThat(context.highlightingTypeAt(key, 7, lineOffset(3))).containsExactly(TypeOfText.KEYWORD);
+        assertThat(context.highlightingTypeAt(key, 7, lineOffset(4))).isEmpty();
+        
+        // only the literal "1" of "x := 1;" is highlighted
+        assertThat(context.highlightingTypeAt(key, 6, lineOffset(7))).isEmpty();
+        assertThat(context.highlightingTypeAt(key, 6, lineOffset(9))).isEmpty();
     }
     
     private int lineOffset(int offset) {
@@ -0,0 +1,197 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.toolkit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.sonar.plsqlopen.lexer.PlSqlLexer;
+import org.sonar.plsqlopen.parser.SslrVersion;
+import org.sonar.plsqlopen.squid.PlSqlConfiguration;
+import org.sonar.plugins.plsqlopen.api.PlSqlGrammar;
+import org.sonar.sslr.grammar.GrammarRuleKey;
+import org.sonar.sslr.internal.vm.Machine;
+import org.sonar.sslr.internal.vm.NativeExpression;
+import org.sonar.sslr.internal.vm.SequenceExpression;
+
+import com.sonar.sslr.api.Grammar;
+import com.sonar.sslr.api.RecognitionException;
+import com.sonar.sslr.impl.Parser;
+import com.sonar.sslr.impl.matcher.RuleDefinition;
+
+/**
+ * Parses files without memoization and counts, for each rule, how many times it was evaluated
+ * again at a token where it had already matched. These evaluations are the ones avoided by
+ * memoizing the rule, so the rules with a high hit rate are the candidates for
+ * {@link PlSqlGrammar#MEMOIZED_RULES}. The positions of the matches are read from the internal
+ * parsing machine of SSLR, so the profiler only runs with the version of SSLR it was verified with.
+ * <pre>
+ * java -cp sslr-plsql-toolkit.jar org.sonar.plsqlopen.toolkit.MemoizationProfiler &lt;directory&gt; [charset]
+ * </pre>
+ */
+public class MemoizationProfiler {
+
+    private final Map<GrammarRuleKey, RuleStatistics> statistics = new LinkedHashMap<>();
+    private final Parser<Grammar> parser;
+    private int files;
+    private int failures;
+    
+    public MemoizationProfiler(PlSqlConfiguration conf) {
+        if (!SslrVersion.isVerified()) {
+            throw new IllegalStateException("The profiler relies on the internals of SSLR " + SslrVersion.VERIFIED
+                    + " but SSLR " + SslrVersion.current() + " was found");
+        }
+        Grammar grammar = PlSqlGrammar.createWithMemoizationOf(Collections.<GrammarRuleKey>emptyList()).build();
+        for (GrammarRuleKey key : PlSqlGrammar.allRules()) {
+            RuleDefinition rule = (RuleDefinition) grammar.rule(key);
+            if (rule == null) {
+                continue;
+            }
+            RuleStatistics ruleStatistics = new RuleStatistics(key);
+            statistics.put(key, ruleStatistics);
+            rule.setExpression(new SequenceExpression(
+                    new RuleEntered(ruleStatistics),
+                    rule.getExpression(),
+                    new RuleMatched(ruleStatistics)));
+        }
+        parser = Parser.builder(grammar).withLexer(PlSqlLexer.create(conf)).build();
+    }
+    
+    public void parse(File file) {
+        for (RuleStatistics ruleStatistics : statistics.values()) {
+            ruleStatistics.matches.clear();
+        }
+        files++;
+        try {
+            parser.parse(file);
+        } catch (RecognitionException e) {
+            failures++;
+        }
+    }
+    
+    public List<RuleStatistics> statistics() {
+        return statistics.values().stream()
+                .filter(s -> s.evaluations > 0)
+                .sorted(Comparator.comparingLong(RuleStatistics::hits).reversed())
+                .collect(Collectors.toList());
+    }
+    
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%d files parsed, %d with parsing errors%n", files, failures));
+        report.append(String.format("%-40s %12s %12s %8s%n", "Rule", "Evaluations", "Hits", "Hit rate"));
+        for (RuleStatistics ruleStatistics : statistics()) {
+            report.append(String.format("%-40s %12d %12d %7.1f%%%n",
+                    ruleStatistics.key,
+                    ruleStatistics.evaluations,
+                    ruleStatistics.hits,
+                    ruleStatistics.hitRate() * 100));
+        }
+        return report.toString();
+    }
+    
+    public static void main(String[] args) throws IOException {
+        Charset charset = args.length > 1 ? Charset.forName(args[1]) : StandardCharsets.UTF_8;
+        MemoizationProfiler profiler = new MemoizationProfiler(new PlSqlConfiguration(charset));
+        
+        List<Path> paths;
+        try (Stream<Path> files = Files.walk(Paths.get(args[0]))) {
+            paths = files.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            profiler.parse(path.toFile());
+        }
+        System.out.print(profiler.report());
+    }
+    
+    public static class RuleStatistics {
+        private final GrammarRuleKey key;
+        private final BitSet matches = new BitSet();
+        private long evaluations;
+        private long hits;
+        
+        RuleStatistics(GrammarRuleKey key) {
+            this.key = key;
+        }
+        
+        public GrammarRuleKey key() {
+            return key;
+        }
+        
+        public long evaluations() {
+            return evaluations;
+        }
+        
+        public long hits() {
+            return hits;
+        }
+        
+        public double hitRate() {
+            return evaluations == 0 ? 0 : (double) hits / evaluations;
+        }
+    }
+    
+    private static class RuleEntered extends NativeExpression {
+        private final RuleStatistics statistics;
+        
+        RuleEntered(RuleStatistics statistics) {
+            this.statistics = statistics;
+        }
+        
+        @Override
+        public void execute(Machine machine) {
+            statistics.evaluations++;
+            if (statistics.matches.get(machine.getIndex())) {
+                statistics.hits++;
+            }
+            machine.jump(1);
+        }
+    }
+    
+    private static class RuleMatched extends NativeExpression {
+        private final RuleStatistics statistics;
+        
+        RuleMatched(RuleStatistics statistics) {
+            this.statistics = statistics;
+        }
+        
+        @Override
+        public void execute(Machine machine) {
+            // the top of the stack is the call of the rule, which keeps the index where it started
+            statistics.matches.set(machine.peek().index());
+            machine.jump(1);
+        }
+    }
+    
+}
@@ -0,0 +1,48 @@
+/*
+ * Sonar PL/SQL Plugin (Community)
+ * Copyright (C) 2015-2017 Felipe Zorzo
+ * mailto:felipebzorzo AT gmail DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plsqlopen.toolkit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.Test;
+import org.sonar.plugins.plsqlopen.api.PlSqlGrammar;
+import org.sonar.plsqlopen.squid.PlSqlConfiguration;
+import org.sonar.plsqlopen.toolkit.MemoizationProfiler.RuleStatistics;
+
+public class MemoizationProfilerTest {
+
+    @Test
+    public void shouldCountEvaluationsAtTheSamePosition() {
+        MemoizationProfiler profiler = new MemoizationProfiler(new PlSqlConfiguration(StandardCharsets.UTF_8));
+        profiler.parse(new File("../plsql-frontend/src/test/resources/metrics/methods.sql"));
+        
+        List<RuleStatistics> statistics = profiler.statistics();
+        assertThat(statistics).isNotEmpty();
+        assertThat(statistics.get(0).hits()).isPositive();
+        assertThat(statistics.get(0).hitRate()).isBetween(0.0, 1.0);
+        assertThat(statistics).extracting("key").contains(PlSqlGrammar.IDENTIFIER_NAME);
+        assertThat(profiler.report()).contains("1 files parsed, 0 with parsing errors");
+    }
+    
+}